@@ -0,0 +1,49 @@
+package com.service.order.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.order.common.ApiResponse;
+import com.service.order.exception.BusinessException;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Turns the 4xx error envelopes of product-service and inventory-service into a
+ * {@link BusinessException} with their message and status. Those are answers, not outages, so the
+ * circuit breakers ignore them and the fallbacks pass them on. 5xx and unreadable errors keep
+ * Feign's default handling and count as failures.
+ */
+@Component
+@Slf4j
+public class ApiErrorDecoder implements ErrorDecoder {
+
+    private final ErrorDecoder defaultDecoder = new ErrorDecoder.Default();
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    ApiErrorDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Exception decode(String methodKey, Response response) {
+        HttpStatus status = HttpStatus.resolve(response.status());
+        if (status == null || !status.is4xxClientError() || response.body() == null) {
+            return defaultDecoder.decode(methodKey, response);
+        }
+
+        try (InputStream body = response.body().asInputStream()) {
+            ApiResponse<?> error = objectMapper.readValue(body, ApiResponse.class);
+            return new BusinessException(error.getMessage() != null ? error.getMessage() : status.getReasonPhrase(), status);
+        } catch (IOException ex) {
+            log.warn("Unreadable error response of {}: {}", methodKey, ex.getMessage());
+            return new BusinessException(status.getReasonPhrase(), status);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.service.order.client;
 
 import com.service.order.common.ApiResponse;
+import com.service.order.exception.BusinessException;
+import com.service.order.model.dto.response.ProductAvailability;
 import com.service.order.util.Constants;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -13,9 +15,13 @@ public interface InventoryClient {
 
     @GetMapping(path = "/api/inventory/check")
     @CircuitBreaker(name = "inventoryServiceCircuitBreaker", fallbackMethod = "fallbackForInventoryService")
-    ApiResponse checkProductAvailability(@RequestParam("productId") String productId, @RequestParam("quantity") Long quantity);
+    ApiResponse<ProductAvailability> checkProductAvailability(@RequestParam("productId") String productId, @RequestParam("quantity") Long quantity);
 
-    default ApiResponse fallbackForInventoryService(String productId, Long quantity, Throwable th) {
+    // errors inventory-service answered with (see ApiErrorDecoder) are passed on, not treated as an outage
+    default ApiResponse<ProductAvailability> fallbackForInventoryService(String productId, Long quantity, Throwable th) {
+        if (th instanceof BusinessException ex) {
+            throw ex;
+        }
         return ApiResponse.error(Constants.INVENTORY_SERVICE_NOT_AVAILABLE, HttpStatus.SERVICE_UNAVAILABLE);
     }
 }
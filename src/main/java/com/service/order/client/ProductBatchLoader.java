@@ -0,0 +1,139 @@
+package com.service.order.client;
+
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.exception.BusinessException;
+import com.service.order.model.dto.response.ProductDetailsDto;
+import com.service.order.common.ApiResponse;
+import com.service.order.util.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces product lookups of concurrent requests into bulk {@link ProductClient#getProductsByIds} calls.
+ * <p>
+ * Ids requested within the same window are de-duplicated and sent as a single call. A batch is
+ * sent early once it reaches the configured maximum size. Every caller gets its own copy of the
+ * shared result, so cancelling one caller doesn't affect the others waiting on the same id.
+ */
+@Component
+@Slf4j
+public class ProductBatchLoader {
+
+    private final ProductClient productClient;
+    private final OrderServiceConfig orderServiceConfig;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService lookupExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<String, CompletableFuture<ProductDetailsDto>> pending = new HashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    @Autowired
+    ProductBatchLoader(ProductClient productClient, OrderServiceConfig orderServiceConfig, @Qualifier("productBatchScheduler") ScheduledExecutorService scheduler, @Qualifier("orderLookupExecutor") ExecutorService lookupExecutor) {
+        this.productClient = productClient;
+        this.orderServiceConfig = orderServiceConfig;
+        this.scheduler = scheduler;
+        this.lookupExecutor = lookupExecutor;
+    }
+
+    public boolean isEnabled() {
+        return orderServiceConfig.getProductBatch().isEnabled();
+    }
+
+    public CompletableFuture<ProductDetailsDto> load(String productId) {
+        CompletableFuture<ProductDetailsDto> result;
+        Map<String, CompletableFuture<ProductDetailsDto>> fullBatch = null;
+
+        lock.lock();
+        try {
+            result = pending.computeIfAbsent(productId, id -> new CompletableFuture<>());
+
+            if (pending.size() >= orderServiceConfig.getProductBatch().getMaxSize()) {
+                fullBatch = takePending();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, orderServiceConfig.getProductBatch().getWindowMs(), TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return result.copy();
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<ProductDetailsDto>> batch;
+
+        lock.lock();
+        try {
+            batch = takePending();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private Map<String, CompletableFuture<ProductDetailsDto>> takePending() {
+        Map<String, CompletableFuture<ProductDetailsDto>> batch = pending;
+        pending = new HashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<String, CompletableFuture<ProductDetailsDto>> batch) {
+        lookupExecutor.execute(() -> {
+            try {
+                complete(batch, productClient.getProductsByIds(batch.keySet()));
+            } catch (RuntimeException ex) {
+                log.error("Bulk product lookup of {} ids failed", batch.size(), ex);
+                batch.values().forEach(waiter -> waiter.completeExceptionally(ex));
+            }
+        });
+    }
+
+    private void complete(Map<String, CompletableFuture<ProductDetailsDto>> batch, ApiResponse<List<ProductDetailsDto>> response) {
+        if (response == null || response.getPayload() == null) {
+            BusinessException ex = response == null
+                    ? new BusinessException(Constants.PRODUCT_SERVICE_NOT_AVAILABLE, HttpStatus.SERVICE_UNAVAILABLE)
+                    : new BusinessException(response.getMessage(), response.getHttpStatus());
+            batch.values().forEach(waiter -> waiter.completeExceptionally(ex));
+            return;
+        }
+
+        Map<String, ProductDetailsDto> products = response.getPayload()
+                .stream()
+                .collect(Collectors.toMap(ProductDetailsDto::id, Function.identity(), (first, second) -> first));
+
+        batch.forEach((productId, waiter) -> {
+            ProductDetailsDto product = products.get(productId);
+            if (product != null) {
+                waiter.complete(product);
+            } else {
+                waiter.completeExceptionally(new BusinessException(Constants.PRODUCT_NOT_FOUND + productId, HttpStatus.NOT_FOUND));
+            }
+        });
+    }
+}
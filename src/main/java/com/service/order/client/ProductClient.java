@@ -1,21 +1,43 @@
 package com.service.order.client;
 
-import com.service.order.model.dto.response.ProductResponseDto;
+import com.service.order.common.ApiResponse;
+import com.service.order.exception.BusinessException;
+import com.service.order.model.dto.response.ProductDetailsDto;
 import com.service.order.util.Constants;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name = "product-service", url = "${product.service.url}")
 public interface ProductClient {
 
     @GetMapping(path = "/api/products/{id}")
     @CircuitBreaker(name = "productServiceCircuitBreaker", fallbackMethod = "fallbackForProductService")
-    ProductResponseDto getProductById(@PathVariable String id);
+    ApiResponse<ProductDetailsDto> getProductById(@PathVariable String id);
+
+    @PostMapping(path = "/api/products/batch")
+    @CircuitBreaker(name = "productServiceCircuitBreaker", fallbackMethod = "fallbackForProductsService")
+    ApiResponse<List<ProductDetailsDto>> getProductsByIds(@RequestBody Collection<String> ids);
+
+    // errors product-service answered with (see ApiErrorDecoder) are passed on, not treated as an outage
+    default ApiResponse<ProductDetailsDto> fallbackForProductService(String id, Throwable th) {
+        if (th instanceof BusinessException ex) {
+            throw ex;
+        }
+        return ApiResponse.error(Constants.PRODUCT_SERVICE_NOT_AVAILABLE, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 
-    default ProductResponseDto fallbackForProductService(String id, Throwable th) {
-        return new ProductResponseDto(null, Constants.PRODUCT_SERVICE_NOT_AVAILABLE, HttpStatus.SERVICE_UNAVAILABLE);
+    default ApiResponse<List<ProductDetailsDto>> fallbackForProductsService(Collection<String> ids, Throwable th) {
+        if (th instanceof BusinessException ex) {
+            throw ex;
+        }
+        return ApiResponse.error(Constants.PRODUCT_SERVICE_NOT_AVAILABLE, HttpStatus.SERVICE_UNAVAILABLE);
     }
 }
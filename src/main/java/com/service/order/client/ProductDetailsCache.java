@@ -0,0 +1,134 @@
+package com.service.order.client;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.service.order.common.ApiResponse;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.exception.BusinessException;
+import com.service.order.model.dto.response.ProductDetailsDto;
+import com.service.order.util.Constants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Size-bounded near cache of product details in front of {@link ProductClient#getProductById}.
+ * <p>
+ * Entries expire after {@code order.product-cache.ttl}. An entry that is read after
+ * {@code refresh-after} is reloaded in the background while the current value keeps being served,
+ * so hot products don't expire. When product-service is unavailable (circuit breaker open or
+ * call failed) the last value seen within {@code stale-ttl} is served instead of failing the order.
+ */
+@Component
+@Slf4j
+public class ProductDetailsCache {
+
+    private static final String CACHE_NAME = "productDetails";
+
+    private final ProductClient productClient;
+    private final ProductBatchLoader productBatchLoader;
+    private final OrderServiceConfig orderServiceConfig;
+    private final ExecutorService lookupExecutor;
+    private final AsyncLoadingCache<String, ProductDetailsDto> cache;
+    private final Cache<String, ProductDetailsDto> lastKnown;
+    private final Counter staleHits;
+
+    @Autowired
+    ProductDetailsCache(ProductClient productClient, ProductBatchLoader productBatchLoader, OrderServiceConfig orderServiceConfig, @Qualifier("orderLookupExecutor") ExecutorService lookupExecutor, MeterRegistry meterRegistry) {
+        this(productClient, productBatchLoader, orderServiceConfig, lookupExecutor, meterRegistry, Ticker.systemTicker());
+    }
+
+    ProductDetailsCache(ProductClient productClient, ProductBatchLoader productBatchLoader, OrderServiceConfig orderServiceConfig, ExecutorService lookupExecutor, MeterRegistry meterRegistry, Ticker ticker) {
+        this.productClient = productClient;
+        this.productBatchLoader = productBatchLoader;
+        this.orderServiceConfig = orderServiceConfig;
+        this.lookupExecutor = lookupExecutor;
+
+        OrderServiceConfig.ProductCache settings = orderServiceConfig.getProductCache();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getTtl())
+                .refreshAfterWrite(settings.getRefreshAfter())
+                .executor(lookupExecutor)
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync((productId, executor) -> fetch(productId, executor));
+
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getStaleTtl())
+                .ticker(ticker)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.staleHits = Counter.builder("cache.stale.hits")
+                .description("Product lookups answered with the last known value while product-service was unavailable")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the product details, completing exceptionally with a {@link BusinessException}
+     * when the product can't be loaded. Cancelling the returned future doesn't affect other callers:
+     * the load behind it keeps running and still fills the cache.
+     */
+    public CompletableFuture<ProductDetailsDto> get(String productId) {
+        CompletableFuture<ProductDetailsDto> product = orderServiceConfig.getProductCache().isEnabled()
+                ? cache.get(productId)
+                : fetch(productId, lookupExecutor);
+
+        return product.exceptionallyCompose(ex -> lastKnownOr(productId, ex));
+    }
+
+    private CompletableFuture<ProductDetailsDto> fetch(String productId, Executor executor) {
+        CompletableFuture<ProductDetailsDto> product = productBatchLoader.isEnabled()
+                ? productBatchLoader.load(productId)
+                : CompletableFuture.supplyAsync(() -> fetchProduct(productId), executor);
+
+        return product.whenComplete((details, ex) -> {
+            if (details != null) {
+                lastKnown.put(productId, details);
+            }
+        });
+    }
+
+    private ProductDetailsDto fetchProduct(String productId) {
+        ApiResponse<ProductDetailsDto> responseDto = productClient.getProductById(productId);
+
+        if (responseDto == null) {
+            throw new BusinessException(Constants.PRODUCT_SERVICE_NOT_AVAILABLE, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        if (responseDto.getPayload() == null) {
+            throw new BusinessException(responseDto.getMessage(), responseDto.getHttpStatus());
+        }
+        return responseDto.getPayload();
+    }
+
+    private CompletableFuture<ProductDetailsDto> lastKnownOr(String productId, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+
+        if (cause instanceof BusinessException businessException
+                && businessException.getHttpStatus() == HttpStatus.SERVICE_UNAVAILABLE) {
+            ProductDetailsDto stale = lastKnown.getIfPresent(productId);
+            if (stale != null) {
+                log.warn("Product service unavailable, serving last known details of product {}", productId);
+                staleHits.increment();
+                return CompletableFuture.completedFuture(stale);
+            }
+        }
+        return CompletableFuture.failedFuture(cause);
+    }
+}
@@ -0,0 +1,45 @@
+package com.service.order.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService orderLookupExecutor(OrderServiceConfig orderServiceConfig, @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            // the calls block on I/O, a virtual thread each costs next to nothing while it waits
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-lookup-", 0).factory());
+        }
+
+        OrderServiceConfig.Lookup lookup = orderServiceConfig.getLookup();
+        // bounded pool and queue; when both are full the request thread runs the call itself
+        return new ThreadPoolExecutor(
+                lookup.getPoolSize(),
+                lookup.getPoolSize(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(lookup.getQueueCapacity()),
+                new CustomizableThreadFactory("order-lookup-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService orderIntakeExecutor(OrderServiceConfig orderServiceConfig) {
+        return Executors.newFixedThreadPool(Math.max(1, orderServiceConfig.getIntake().getWorkers()), new CustomizableThreadFactory("order-intake-"));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService productBatchScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("product-batch-"));
+    }
+}
@@ -1,6 +1,7 @@
 package com.service.order.config;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
@@ -34,4 +35,25 @@ public class KafkaConfig {
         return new DefaultKafkaProducerFactory<>(config);
     }
 
+    /**
+     * Producer used by the outbox relay. Payloads are already serialized, and the settings favour
+     * large compressed batches with idempotent, ordered delivery per partition.
+     */
+    @Bean
+    public KafkaTemplate<String, byte[]> outboxKafkaTemplate(OrderServiceConfig orderServiceConfig) {
+        OrderServiceConfig.Outbox outbox = orderServiceConfig.getOutbox();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, outbox.getLingerMs());
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, outbox.getProducerBatchBytes());
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, outbox.getCompressionType());
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+    }
+
 }
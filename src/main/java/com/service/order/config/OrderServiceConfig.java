@@ -1,10 +1,19 @@
 package com.service.order.config;
 
+import com.service.order.model.enums.OrderSource;
+import com.service.order.model.enums.PaymentMethod;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Component
 @ConfigurationProperties(prefix = "order")
@@ -13,4 +22,139 @@ public class OrderServiceConfig {
     private BigDecimal discount;
     private BigDecimal tax;
     private BigDecimal shippingCost;
+    private Lookup lookup = new Lookup();
+    private ProductBatch productBatch = new ProductBatch();
+    private ProductCache productCache = new ProductCache();
+    private Export export = new Export();
+    private Outbox outbox = new Outbox();
+    private Events events = new Events();
+    private Cache cache = new Cache();
+    private Batch batch = new Batch();
+    private Intake intake = new Intake();
+    private Stages stages = new Stages();
+    private Pricing pricing = new Pricing();
+
+    @Data
+    public static class Lookup {
+        // run the per-line product and inventory calls concurrently instead of one after another
+        private boolean parallel = true;
+        private int poolSize = 16;
+        private int queueCapacity = 256;
+        private long timeoutMs = 5000;
+    }
+
+    @Data
+    public static class ProductBatch {
+        // coalesce product lookups of concurrent requests into bulk calls to product-service
+        private boolean enabled = false;
+        private long windowMs = 5;
+        private int maxSize = 100;
+    }
+
+    @Data
+    public static class ProductCache {
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(5);
+        // reads after this age reload the entry in the background, must be shorter than ttl
+        private Duration refreshAfter = Duration.ofMinutes(4);
+        // how long a value may still be served while product-service is unavailable
+        private Duration staleTtl = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Export {
+        // orders read per keyset page while exporting
+        private int fetchSize = 1000;
+        // rows kept in memory by the streaming Excel writer
+        private int excelRowWindow = 100;
+        // heap budget of a PDF report, anything beyond it is kept in PDFBox's scratch file
+        private DataSize pdfMaxMainMemory = DataSize.ofMegabytes(16);
+    }
+
+    @Data
+    public static class Outbox {
+        // events read, sent and deleted per relay transaction
+        private int batchSize = 500;
+        private long pollIntervalMs = 100;
+        private long sendTimeoutMs = 30_000;
+        private int lingerMs = 20;
+        private int producerBatchBytes = 256 * 1024;
+        private String compressionType = "lz4";
+    }
+
+    @Data
+    public static class Events {
+        // topics whose delta events are sent in the binary OrderDeltaCodec format instead of JSON
+        private Set<String> binaryTopics = new HashSet<>();
+    }
+
+    @Data
+    public static class Cache {
+        // in-process tier in front of the order:<id> Redis keys
+        private long localMaximumSize = 10_000;
+        // bounds staleness should an invalidation message be lost, pub/sub has no delivery guarantee
+        private Duration localTtl = Duration.ofSeconds(30);
+        private String invalidationChannel = "order-cache-invalidation";
+        // XFetch beta, above 1 favours earlier reloads, 0 turns early expiration off
+        private double earlyExpiryBeta = 1.0;
+        // build list pages from the cached orders, only the ids and the misses come from the database
+        private boolean pageAssembly = true;
+        // Redis values at least this big are deflated
+        private int compressionThresholdBytes = 512;
+    }
+
+    @Data
+    public static class Batch {
+        // most orders accepted by one POST /api/orders/batch, no more than Constants.MAX_BATCH_SIZE
+        private int maxSize = 1000;
+    }
+
+    @Data
+    public static class Intake {
+        // workers draining POST /api/orders/intake, 0 only accepts and leaves the draining to other nodes
+        private int workers = 4;
+        private int batchSize = 100;
+        private long pollIntervalMs = 200;
+        // requests accepted but not yet processed, beyond this new ones are turned away
+        private long maxPending = 10_000;
+        // a request failing with a 5xx (downstream unavailable) is retried this many times in total
+        private int maxAttempts = 3;
+        private Duration retryBackoff = Duration.ofSeconds(5);
+        // how long a claimed batch stays reserved to its worker, must cover the product and inventory lookups
+        private Duration lease = Duration.ofMinutes(1);
+        // how long finished requests can still be polled
+        private Duration retention = Duration.ofDays(1);
+    }
+
+    @Data
+    public static class Stages {
+        // completed order requests kept for the slowrequests actuator endpoint
+        private int recentRequests = 1024;
+        private int slowestShown = 20;
+    }
+
+    @Data
+    public static class Pricing {
+        // the total amount is rounded once, to the scale of the total_amount column
+        private int scale = 2;
+        private RoundingMode roundingMode = RoundingMode.HALF_UP;
+        // product prices with more decimals than this are priced with BigDecimal instead of fixed point
+        private int priceScale = 2;
+        // override discount, tax and shipping-cost per order source, payment method and subtotal, later rules win
+        private List<PricingRule> rules = new ArrayList<>();
+    }
+
+    @Data
+    public static class PricingRule {
+        // empty matches every source / payment method, including orders without one
+        private Set<OrderSource> sources = new HashSet<>();
+        private Set<PaymentMethod> paymentMethods = new HashSet<>();
+        // applies to orders whose subtotal (before discount) is at least this
+        private BigDecimal minSubtotal = BigDecimal.ZERO;
+        // the values left unset keep the ones of the earlier rules, or the global ones
+        private BigDecimal discount;
+        private BigDecimal tax;
+        private BigDecimal shippingCost;
+    }
 }
@@ -1,26 +1,38 @@
 package com.service.order.controller;
 
 import com.service.order.common.ApiResponse;
+import com.service.order.model.dto.OrderExportFilter;
 import com.service.order.model.dto.request.OrderRequestDto;
 import com.service.order.model.dto.request.UpdateOrderRequestDto;
+import com.service.order.service.OrderExportService;
+import com.service.order.service.OrderIntakeService;
 import com.service.order.service.OrderService;
 import com.service.order.util.Constants;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping(path = "/api/orders")
 public class OrderController {
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderIntakeService orderIntakeService;
 
     @Autowired
-    OrderController(OrderService orderService) {
+    OrderController(OrderService orderService, OrderExportService orderExportService, OrderIntakeService orderIntakeService) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
+        this.orderIntakeService = orderIntakeService;
     }
 
     @PostMapping
@@ -28,12 +40,35 @@ public class OrderController {
         return ApiResponse.success(orderService.createOrder(orderRequestDto), Constants.ORDER_CREATED, HttpStatus.CREATED);
     }
 
+    @PostMapping(path = "/batch")
+    ApiResponse createOrders(@RequestBody @Valid @Size(min = 1, max = Constants.MAX_BATCH_SIZE, message = Constants.INVALID_BATCH_SIZE + Constants.MAX_BATCH_SIZE) List<OrderRequestDto> orderRequestDtos) {
+        return ApiResponse.success(orderService.createOrders(orderRequestDtos), Constants.ORDER_BATCH_PROCESSED, HttpStatus.OK);
+    }
+
+    @PostMapping(path = "/intake")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    ApiResponse submitOrder(@RequestBody @Valid OrderRequestDto orderRequestDto) {
+        return ApiResponse.success(orderIntakeService.submit(orderRequestDto), Constants.ORDER_ACCEPTED, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping(path = "/intake/{trackingId}")
+    ApiResponse getIntakeStatus(@PathVariable UUID trackingId) {
+        return ApiResponse.success(orderIntakeService.getStatus(trackingId), Constants.ORDER_RETRIEVED, HttpStatus.OK);
+    }
+
     @GetMapping
     ApiResponse getOrder(@RequestParam(defaultValue = "0") int page,
                          @RequestParam(defaultValue = "10") int size,
                          @RequestParam(defaultValue = "id") String[] sortBy,
-                         @RequestParam(defaultValue = "asc") String[] sortOrder) {
-        return ApiResponse.success(orderService.getOrders(page, size, sortBy, sortOrder), Constants.ORDER_RETRIEVED, HttpStatus.OK);
+                         @RequestParam(defaultValue = "asc") String[] sortOrder,
+                         @RequestParam(defaultValue = "false") boolean keyset,
+                         @RequestParam(required = false) String cursor,
+                         @RequestParam(defaultValue = "false") boolean withCount,
+                         @RequestParam(required = false) String[] fields) {
+        if (keyset || cursor != null) {
+            return ApiResponse.success(orderService.getOrdersAfter(cursor, size, sortBy[0], sortOrder[0], withCount, fields), Constants.ORDER_RETRIEVED, HttpStatus.OK);
+        }
+        return ApiResponse.success(orderService.getOrders(page, size, sortBy, sortOrder, fields), Constants.ORDER_RETRIEVED, HttpStatus.OK);
     }
 
     @GetMapping(path = "/{id}")
@@ -57,11 +92,22 @@ public class OrderController {
     }
 
     @GetMapping(path = "/export")
-    void exportOrdersReport(@RequestParam String format, HttpServletResponse response) throws IOException {
+    void exportOrdersReport(@RequestParam String format,
+                            @RequestParam(required = false) Long customerId,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                            @RequestParam(defaultValue = "false") boolean gzip,
+                            HttpServletResponse response) throws IOException {
+        OrderExportFilter filter = new OrderExportFilter(customerId, from, to);
+
         if (format.equalsIgnoreCase("excel")) {
-            orderService.exportOrdersReportInExcel(response);
+            orderExportService.exportOrdersReportInExcel(response);
+        } else if (format.equalsIgnoreCase("csv")) {
+            orderExportService.exportOrdersReportInCsv(filter, gzip, response);
+        } else if (format.equalsIgnoreCase("ndjson")) {
+            orderExportService.exportOrdersReportInNdjson(filter, gzip, response);
         } else {
-            orderService.exportOrdersReportInPdf(response);
+            orderExportService.exportOrdersReportInPdf(response);
         }
     }
 }
@@ -0,0 +1,136 @@
+package com.service.order.event;
+
+import com.service.order.model.enums.OrderStatus;
+import com.service.order.util.BinaryIO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of {@link OrderDeltaEvent}, sent with content type {@link #CONTENT_TYPE}.
+ * <p>
+ * Schema, version 2 ({@code var}, {@code str} and {@code dec} as written by {@link BinaryIO}):
+ * <pre>
+ * u8   schema version
+ * var  order id
+ * var  order version
+ * u8   field mask: 1 status, 2 shipping address, 4 notes, 8 total amount,
+ *      16 shipping cost, 32 discount, 64 tax amount
+ * str  status            (enum name, if mask &amp; 1)
+ * str  shipping address  (if mask &amp; 2)
+ * str  notes             (if mask &amp; 4)
+ * dec  total amount      (if mask &amp; 8)
+ * dec  shipping cost     (if mask &amp; 16)
+ * dec  discount          (if mask &amp; 32)
+ * dec  tax amount        (if mask &amp; 64)
+ * var  item change count, then per change: str product id, var quantity (0 = removed)
+ * </pre>
+ * New fields are only ever added behind a new schema version. Version 1, without the rates, is
+ * still decoded.
+ */
+public final class OrderDeltaCodec {
+
+    public static final String CONTENT_TYPE = "application/vnd.order-delta.v2+binary";
+
+    private static final int SCHEMA_VERSION = 2;
+    private static final int SCHEMA_VERSION_WITHOUT_RATES = 1;
+    private static final int STATUS = 1;
+    private static final int SHIPPING_ADDRESS = 2;
+    private static final int NOTES = 4;
+    private static final int TOTAL_AMOUNT = 8;
+    private static final int SHIPPING_COST = 16;
+    private static final int DISCOUNT = 32;
+    private static final int TAX_AMOUNT = 64;
+
+    private OrderDeltaCodec() {
+    }
+
+    public static byte[] encode(OrderDeltaEvent event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(SCHEMA_VERSION);
+            BinaryIO.writeVarLong(out, event.orderId());
+            BinaryIO.writeVarLong(out, event.version());
+
+            int mask = (event.status() != null ? STATUS : 0)
+                    | (event.shippingAddress() != null ? SHIPPING_ADDRESS : 0)
+                    | (event.notes() != null ? NOTES : 0)
+                    | (event.totalAmount() != null ? TOTAL_AMOUNT : 0)
+                    | (event.shippingCost() != null ? SHIPPING_COST : 0)
+                    | (event.discount() != null ? DISCOUNT : 0)
+                    | (event.taxAmount() != null ? TAX_AMOUNT : 0);
+            out.writeByte(mask);
+
+            if (event.status() != null) {
+                BinaryIO.writeString(out, event.status().name());
+            }
+            if (event.shippingAddress() != null) {
+                BinaryIO.writeString(out, event.shippingAddress());
+            }
+            if (event.notes() != null) {
+                BinaryIO.writeString(out, event.notes());
+            }
+            if (event.totalAmount() != null) {
+                BinaryIO.writeDecimal(out, event.totalAmount());
+            }
+            if (event.shippingCost() != null) {
+                BinaryIO.writeDecimal(out, event.shippingCost());
+            }
+            if (event.discount() != null) {
+                BinaryIO.writeDecimal(out, event.discount());
+            }
+            if (event.taxAmount() != null) {
+                BinaryIO.writeDecimal(out, event.taxAmount());
+            }
+
+            BinaryIO.writeVarLong(out, event.itemChanges().size());
+            for (OrderItemChange change : event.itemChanges()) {
+                BinaryIO.writeString(out, change.productId());
+                BinaryIO.writeVarLong(out, change.quantity());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static OrderDeltaEvent decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int schemaVersion = in.readUnsignedByte();
+            if (schemaVersion != SCHEMA_VERSION && schemaVersion != SCHEMA_VERSION_WITHOUT_RATES) {
+                throw new IllegalArgumentException("Unsupported order delta schema version: " + schemaVersion);
+            }
+
+            long orderId = BinaryIO.readVarLong(in);
+            long version = BinaryIO.readVarLong(in);
+            int mask = in.readUnsignedByte();
+
+            OrderStatus status = (mask & STATUS) != 0 ? OrderStatus.valueOf(BinaryIO.readString(in)) : null;
+            String shippingAddress = (mask & SHIPPING_ADDRESS) != 0 ? BinaryIO.readString(in) : null;
+            String notes = (mask & NOTES) != 0 ? BinaryIO.readString(in) : null;
+
+            BigDecimal totalAmount = (mask & TOTAL_AMOUNT) != 0 ? BinaryIO.readDecimal(in) : null;
+            BigDecimal shippingCost = (mask & SHIPPING_COST) != 0 ? BinaryIO.readDecimal(in) : null;
+            BigDecimal discount = (mask & DISCOUNT) != 0 ? BinaryIO.readDecimal(in) : null;
+            BigDecimal taxAmount = (mask & TAX_AMOUNT) != 0 ? BinaryIO.readDecimal(in) : null;
+
+            int changeCount = (int) BinaryIO.readVarLong(in);
+            List<OrderItemChange> itemChanges = new ArrayList<>(changeCount);
+            for (int i = 0; i < changeCount; i++) {
+                itemChanges.add(new OrderItemChange(BinaryIO.readString(in), BinaryIO.readVarLong(in)));
+            }
+
+            return new OrderDeltaEvent(orderId, version, status, shippingAddress, notes, totalAmount, shippingCost, discount, taxAmount, itemChanges);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Malformed order delta payload", ex);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.service.order.event;
+
+import com.service.order.model.dto.OrderItemDto;
+import com.service.order.model.dto.response.OrderResponseDto;
+import com.service.order.model.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Changes made to an order by one update. Fields that didn't change are null and only the lines
+ * that were added, changed or removed are listed.
+ * <p>
+ * Consumers rebuild the full order by applying the deltas, in version order, to the snapshot of
+ * the order-created event (version 0). A gap in the versions means an event is missing.
+ */
+public record OrderDeltaEvent(
+        Long orderId,
+        Long version,
+        OrderStatus status,
+        String shippingAddress,
+        String notes,
+        BigDecimal totalAmount,
+        // the rates the order was repriced with, they follow the pricing rule of its source, payment method and subtotal
+        BigDecimal shippingCost,
+        BigDecimal discount,
+        BigDecimal taxAmount,
+        List<OrderItemChange> itemChanges
+) {
+
+    public static OrderDeltaEvent between(OrderResponseDto before, OrderResponseDto after) {
+        Map<String, Long> previousItems = quantitiesByProduct(before.orderItems());
+        Map<String, Long> currentItems = quantitiesByProduct(after.orderItems());
+
+        List<OrderItemChange> itemChanges = new ArrayList<>();
+        currentItems.forEach((productId, quantity) -> {
+            if (!quantity.equals(previousItems.get(productId))) {
+                itemChanges.add(new OrderItemChange(productId, quantity));
+            }
+        });
+        previousItems.keySet().stream()
+                .filter(productId -> !currentItems.containsKey(productId))
+                .forEach(productId -> itemChanges.add(new OrderItemChange(productId, 0)));
+
+        return new OrderDeltaEvent(
+                after.id(),
+                after.version(),
+                changed(before.status(), after.status()),
+                changed(before.shippingAddress(), after.shippingAddress()),
+                changed(before.notes(), after.notes()),
+                changedAmount(before.totalAmount(), after.totalAmount()),
+                changedAmount(before.shippingCost(), after.shippingCost()),
+                changedAmount(before.discount(), after.discount()),
+                changedAmount(before.taxAmount(), after.taxAmount()),
+                itemChanges);
+    }
+
+    /**
+     * Returns {@code state} with this delta applied. {@code state} must be at version {@code version - 1}.
+     */
+    public OrderResponseDto applyTo(OrderResponseDto state) {
+        Map<String, Long> items = quantitiesByProduct(state.orderItems());
+        for (OrderItemChange change : itemChanges) {
+            if (change.isRemoval()) {
+                items.remove(change.productId());
+            } else {
+                items.put(change.productId(), change.quantity());
+            }
+        }
+
+        return new OrderResponseDto(
+                state.id(),
+                state.orderNumber(),
+                state.customerId(),
+                state.orderDate(),
+                status != null ? status : state.status(),
+                totalAmount != null ? totalAmount : state.totalAmount(),
+                shippingAddress != null ? shippingAddress : state.shippingAddress(),
+                state.paymentMethod(),
+                items.entrySet().stream().map(item -> new OrderItemDto(item.getKey(), item.getValue())).toList(),
+                shippingCost != null ? shippingCost : state.shippingCost(),
+                discount != null ? discount : state.discount(),
+                taxAmount != null ? taxAmount : state.taxAmount(),
+                state.orderSource(),
+                notes != null ? notes : state.notes(),
+                version);
+    }
+
+    private static <T> T changed(T before, T after) {
+        return Objects.equals(before, after) ? null : after;
+    }
+
+    // 10.0 and 10.00 are the same amount
+    private static BigDecimal changedAmount(BigDecimal before, BigDecimal after) {
+        return before != null && after != null && before.compareTo(after) == 0 ? null : changed(before, after);
+    }
+
+    private static Map<String, Long> quantitiesByProduct(List<OrderItemDto> items) {
+        Map<String, Long> quantities = new LinkedHashMap<>();
+        if (items != null) {
+            items.forEach(item -> quantities.put(item.productId(), item.quantity()));
+        }
+        return quantities;
+    }
+}
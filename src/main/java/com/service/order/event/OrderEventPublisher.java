@@ -0,0 +1,57 @@
+package com.service.order.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.exception.BusinessException;
+import com.service.order.model.entity.OutboxEvent;
+import com.service.order.repository.OutboxEventRepository;
+import com.service.order.util.Constants;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records order events in the outbox table as part of the caller's transaction. The events are
+ * sent to Kafka by {@link OutboxRelay} once that transaction has committed.
+ */
+@Component
+public class OrderEventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final OrderServiceConfig orderServiceConfig;
+
+    @Autowired
+    OrderEventPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper, OrderServiceConfig orderServiceConfig) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.orderServiceConfig = orderServiceConfig;
+    }
+
+    /**
+     * Delta events are encoded with {@link OrderDeltaCodec} on the topics listed in
+     * {@code order.events.binary-topics}, everything else is sent as JSON.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void publish(String topic, Long orderId, Object payload) {
+        boolean binary = payload instanceof OrderDeltaEvent && orderServiceConfig.getEvents().getBinaryTopics().contains(topic);
+
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateId(orderId)
+                    .topic(topic)
+                    .payloadType(payload.getClass().getName())
+                    .contentType(binary ? OrderDeltaCodec.CONTENT_TYPE : MediaType.APPLICATION_JSON_VALUE)
+                    .payload(binary ? OrderDeltaCodec.encode((OrderDeltaEvent) payload) : objectMapper.writeValueAsBytes(payload))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException ex) {
+            throw new BusinessException(Constants.EVENT_SERIALIZATION_FAILED, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.service.order.event;
+
+/**
+ * New quantity of one order line. A quantity of 0 means the line was removed.
+ */
+public record OrderItemChange(
+        String productId,
+        long quantity
+) {
+    public boolean isRemoval() {
+        return quantity == 0;
+    }
+}
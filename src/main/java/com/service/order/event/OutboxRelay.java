@@ -0,0 +1,150 @@
+package com.service.order.event;
+
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.model.entity.OutboxEvent;
+import com.service.order.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the order outbox into Kafka.
+ * <p>
+ * Each batch is read, sent and deleted in one transaction that also holds a Postgres advisory
+ * lock, so a single node relays at a time, in id order. Ids are drawn when an event is written and
+ * the writes of one order are serialized by its version, so the events of an order leave in the
+ * order they were committed. Events of different orders can commit out of id order, they are
+ * keyed by order id and only need to be ordered within their partition.
+ * <p>
+ * Records are sent without waiting for each other, which lets the producer fill large compressed
+ * batches. Rows are only deleted once every record of the batch has been acknowledged, so a
+ * failure re-sends the batch (at-least-once).
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final long RELAY_LOCK_KEY = 0x6f75_7462_6f78L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> outboxKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderServiceConfig orderServiceConfig;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestEventAgeMillis = new AtomicLong();
+    private final Counter publishedEvents;
+    private final Timer batchTimer;
+
+    @Autowired
+    OutboxRelay(OutboxEventRepository outboxEventRepository, @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, byte[]> outboxKafkaTemplate, PlatformTransactionManager transactionManager, OrderServiceConfig orderServiceConfig, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxKafkaTemplate = outboxKafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderServiceConfig = orderServiceConfig;
+
+        Gauge.builder("order.outbox.lag.events", pendingEvents, AtomicLong::get)
+                .description("Events written to the outbox but not yet sent to Kafka, estimated from the span of their ids")
+                .register(meterRegistry);
+        Gauge.builder("order.outbox.lag.seconds", oldestEventAgeMillis, age -> age.get() / 1000.0)
+                .description("Age of the oldest event still waiting in the outbox")
+                .register(meterRegistry);
+        this.publishedEvents = Counter.builder("order.outbox.published")
+                .description("Events sent to Kafka and removed from the outbox")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("order.outbox.batch")
+                .description("Time to send and delete one outbox batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:100}")
+    public void relay() {
+        int batchSize = orderServiceConfig.getOutbox().getBatchSize();
+
+        try {
+            Integer sent;
+            do {
+                sent = transactionTemplate.execute(status -> batchTimer.record(() -> relayBatch(batchSize)));
+            } while (sent != null && sent == batchSize);
+        } catch (RuntimeException ex) {
+            log.error("Outbox relay failed, the batch will be retried", ex);
+        } finally {
+            updateLag();
+        }
+    }
+
+    private int relayBatch(int batchSize) {
+        if (!outboxEventRepository.tryAdvisoryLock(RELAY_LOCK_KEY)) {
+            return 0;
+        }
+
+        List<OutboxEvent> events = outboxEventRepository.findNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            sends[i] = outboxKafkaTemplate.send(toRecord(events.get(i)));
+        }
+        outboxKafkaTemplate.flush();
+
+        awaitAcks(sends);
+
+        outboxEventRepository.deleteByIds(events.stream().map(OutboxEvent::getId).toList());
+        publishedEvents.increment(events.size());
+
+        return events.size();
+    }
+
+    private void awaitAcks(CompletableFuture<?>[] sends) {
+        try {
+            CompletableFuture.allOf(sends).get(orderServiceConfig.getOutbox().getSendTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new IllegalStateException("Outbox batch was not acknowledged by Kafka", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending the outbox batch", ex);
+        }
+    }
+
+    private ProducerRecord<String, byte[]> toRecord(OutboxEvent event) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(event.getTopic(), String.valueOf(event.getAggregateId()), event.getPayload());
+        // same type header JsonSerializer writes, so existing JsonDeserializer consumers keep working
+        record.headers().add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getPayloadType().getBytes(StandardCharsets.UTF_8));
+        record.headers().add(MessageHeaders.CONTENT_TYPE, event.getContentType().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private void updateLag() {
+        try {
+            pendingEvents.set(outboxEventRepository.estimatePending());
+            LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt();
+            oldestEventAgeMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+        } catch (RuntimeException ex) {
+            log.warn("Could not read the outbox lag", ex);
+        }
+    }
+}
@@ -2,11 +2,15 @@ package com.service.order.exception;
 
 import com.service.order.common.ApiResponse;
 import com.service.order.util.Constants;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,6 +27,16 @@ public class GlobalExceptionHandler {
         return ApiResponse.error(errors, HttpStatus.BAD_REQUEST);
     }
 
+    // constraints on the parameters themselves, like the size of the batch list and the orders in it
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ApiResponse<List<String>> handleMethodValidationException(HandlerMethodValidationException ex) {
+        List<String> errors = ex.getAllErrors().stream()
+                .map(error -> error.getDefaultMessage())
+                .collect(Collectors.toList());
+
+        return ApiResponse.error(errors, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ApiResponse handelBusinessException(BusinessException ex) {
         return ApiResponse.error(ex.getMessage(), ex.getHttpStatus());
@@ -34,6 +48,20 @@ public class GlobalExceptionHandler {
         return ApiResponse.error(Constants.INVALID_INPUT, HttpStatus.BAD_REQUEST);
     }
 
+    // a real 503 with Retry-After, clients and load balancers back off on the status, not the body
+    @ExceptionHandler(OrderIntakeFullException.class)
+    public ResponseEntity<ApiResponse> handleOrderIntakeFullException(OrderIntakeFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    // a concurrent update of the same order won, the client has to reload it
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ApiResponse handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return ApiResponse.error(Constants.ORDER_UPDATE_CONFLICT, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(ProductServiceUnAvailableException.class)
     public ApiResponse handelProductServiceUnAvailableException(ProductServiceUnAvailableException ex) {
         return ApiResponse.error(Constants.PRODUCT_SERVICE_NOT_AVAILABLE, HttpStatus.SERVICE_UNAVAILABLE);
@@ -0,0 +1,14 @@
+package com.service.order.exception;
+
+public class OrderIntakeFullException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public OrderIntakeFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -7,11 +7,17 @@ import com.service.order.model.dto.response.OrderResponseDto;
 import com.service.order.model.entity.OrderItem;
 import com.service.order.model.entity.Orders;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface MapStructMapper {
     OrderResponseDto toOrderResponseDto(Orders order);
 
+    @Mapping(target = "orderItems", source = "orderItems")
+    OrderResponseDto toOrderResponseDto(Orders order, List<OrderItemDto> orderItems);
+
     OrderRequestDto toOrderRequestDto(Orders order);
 
     OrderItemDto toOrderItemDto(OrderItem orderItem);
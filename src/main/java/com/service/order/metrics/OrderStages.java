@@ -0,0 +1,199 @@
+package com.service.order.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times an order operation and the stages it goes through.
+ * <p>
+ * {@link #operation} wraps a whole request ({@code createOrder}, {@code getOrder}, an export...) and
+ * {@link #stage} the steps inside it, on the same thread. When the operation ends its time and the
+ * time of each stage are recorded in the {@code order.operation} and {@code order.stage} timers
+ * (percentile histograms), tagged with the operation, its outcome and its order-line count in
+ * buckets. The breakdown is added to the current observation, so it shows up on the request's
+ * trace span, and kept for {@link SlowOrderRequestsEndpoint}.
+ * <p>
+ * Stages run outside of an operation aren't recorded.
+ */
+@Component
+public class OrderStages {
+
+    private static final ThreadLocal<Breakdown> current = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final SlowOrderRequestsEndpoint slowRequests;
+
+    @Autowired
+    OrderStages(MeterRegistry meterRegistry, ObservationRegistry observationRegistry, SlowOrderRequestsEndpoint slowRequests) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.slowRequests = slowRequests;
+    }
+
+    public <T, E extends Exception> T operation(String operation, int lines, Work<T, E> work) throws E {
+        if (current.get() != null) {
+            // called from another operation, e.g. an update reading the order
+            return stage(operation, work);
+        }
+
+        Breakdown breakdown = new Breakdown(operation, lines);
+        current.set(breakdown);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = work.get();
+            failed = false;
+            return result;
+        } finally {
+            current.remove();
+            finish(breakdown, System.nanoTime() - start, failed);
+        }
+    }
+
+    public <E extends Exception> void operation(String operation, int lines, Step<E> step) throws E {
+        operation(operation, lines, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    public <T, E extends Exception> T stage(String stage, Work<T, E> work) throws E {
+        Breakdown breakdown = current.get();
+        if (breakdown == null) {
+            return work.get();
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = work.get();
+            failed = false;
+            return result;
+        } finally {
+            breakdown.add(stage, System.nanoTime() - start, failed);
+        }
+    }
+
+    public <E extends Exception> void stage(String stage, Step<E> step) throws E {
+        stage(stage, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records a stage timed by the caller, for work that ran on other threads.
+     */
+    public void record(String stage, long nanos, boolean failed) {
+        Breakdown breakdown = current.get();
+        if (breakdown != null) {
+            breakdown.add(stage, nanos, failed);
+        }
+    }
+
+    /**
+     * Sets the line count of the current operation once it's known, e.g. after loading the order.
+     */
+    public void lines(int lines) {
+        Breakdown breakdown = current.get();
+        if (breakdown != null) {
+            breakdown.lines = lines;
+        }
+    }
+
+    private void finish(Breakdown breakdown, long nanos, boolean failed) {
+        String lines = linesBucket(breakdown.lines);
+
+        Timer.builder("order.operation")
+                .description("Time of an order operation")
+                .tag("operation", breakdown.operation)
+                .tag("outcome", outcome(failed))
+                .tag("lines", lines)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        Map<String, Double> stagesMs = new LinkedHashMap<>();
+        for (Timing timing : breakdown.timings) {
+            Timer.builder("order.stage")
+                    .description("Time of one stage of an order operation")
+                    .tag("operation", breakdown.operation)
+                    .tag("stage", timing.stage())
+                    .tag("outcome", outcome(timing.failed()))
+                    .tag("lines", lines)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(timing.nanos(), TimeUnit.NANOSECONDS);
+            stagesMs.merge(timing.stage(), timing.nanos() / 1e6, Double::sum);
+        }
+
+        StageBreakdown stageBreakdown = new StageBreakdown(breakdown.operation, breakdown.lines, outcome(failed), Instant.now(), nanos / 1e6, stagesMs);
+
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation != null) {
+            observation.highCardinalityKeyValue("order.stages", stageBreakdown.summary());
+        }
+        slowRequests.add(stageBreakdown);
+    }
+
+    private static String outcome(boolean failed) {
+        return failed ? "error" : "success";
+    }
+
+    // bounded tag values, one per order size class
+    static String linesBucket(int lines) {
+        if (lines <= 0) {
+            return "none";
+        }
+        if (lines == 1) {
+            return "1";
+        }
+        if (lines <= 5) {
+            return "2-5";
+        }
+        if (lines <= 20) {
+            return "6-20";
+        }
+        return lines <= 100 ? "21-100" : "100+";
+    }
+
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        T get() throws E;
+    }
+
+    @FunctionalInterface
+    public interface Step<E extends Exception> {
+        void run() throws E;
+    }
+
+    private static final class Breakdown {
+        private final String operation;
+        private final List<Timing> timings = new ArrayList<>();
+        private int lines;
+
+        private Breakdown(String operation, int lines) {
+            this.operation = operation;
+            this.lines = lines;
+        }
+
+        private void add(String stage, long nanos, boolean failed) {
+            timings.add(new Timing(stage, nanos, failed));
+        }
+    }
+
+    private record Timing(String stage, long nanos, boolean failed) {
+    }
+}
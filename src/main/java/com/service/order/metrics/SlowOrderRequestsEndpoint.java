@@ -0,0 +1,55 @@
+package com.service.order.metrics;
+
+import com.service.order.config.OrderServiceConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@code /actuator/slowrequests}: the slowest of the last {@code order.stages.recent-requests}
+ * order requests, with their stage breakdown. {@code ?limit=} overrides how many are shown.
+ * <p>
+ * Requests are kept in a lock-free ring, a new one overwrites the oldest.
+ */
+@Component
+@Endpoint(id = "slowrequests")
+public class SlowOrderRequestsEndpoint {
+
+    private final OrderServiceConfig orderServiceConfig;
+    private final AtomicReferenceArray<StageBreakdown> recent;
+    private final AtomicLong next = new AtomicLong();
+
+    @Autowired
+    SlowOrderRequestsEndpoint(OrderServiceConfig orderServiceConfig) {
+        this.orderServiceConfig = orderServiceConfig;
+        this.recent = new AtomicReferenceArray<>(Math.max(1, orderServiceConfig.getStages().getRecentRequests()));
+    }
+
+    void add(StageBreakdown breakdown) {
+        recent.set((int) (next.getAndIncrement() % recent.length()), breakdown);
+    }
+
+    @ReadOperation
+    public List<StageBreakdown> slowest(@Nullable Integer limit) {
+        List<StageBreakdown> requests = new ArrayList<>(recent.length());
+        for (int i = 0; i < recent.length(); i++) {
+            StageBreakdown breakdown = recent.get(i);
+            if (breakdown != null) {
+                requests.add(breakdown);
+            }
+        }
+
+        return requests.stream()
+                .sorted(Comparator.comparingDouble(StageBreakdown::totalMs).reversed())
+                .limit(Math.max(0, limit != null ? limit : orderServiceConfig.getStages().getSlowestShown()))
+                .toList();
+    }
+}
@@ -0,0 +1,29 @@
+package com.service.order.metrics;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Where the time of one order request went. {@code stagesMs} holds the wall time of each stage in
+ * the order they first ran; a stage that ran several times is summed, and stages may overlap
+ * (product and inventory lookups run concurrently) or nest.
+ */
+public record StageBreakdown(
+        String operation,
+        int lines,
+        String outcome,
+        Instant finishedAt,
+        double totalMs,
+        Map<String, Double> stagesMs
+) {
+
+    /**
+     * One line form attached to the request's trace span, e.g. {@code lines=3 order-lines=41.2ms flush=3.0ms}.
+     */
+    public String summary() {
+        return stagesMs.entrySet().stream()
+                .map(stage -> "%s=%.1fms".formatted(stage.getKey(), stage.getValue()))
+                .collect(Collectors.joining(" ", "lines=" + lines + " ", ""));
+    }
+}
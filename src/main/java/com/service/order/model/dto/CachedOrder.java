@@ -0,0 +1,25 @@
+package com.service.order.model.dto;
+
+import com.service.order.model.dto.response.OrderResponseDto;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Value stored under the {@code order:<id>} Redis keys: the order plus what's needed for
+ * probabilistic early expiration, how long the order took to load and when the entry expires.
+ */
+public record CachedOrder(
+        OrderResponseDto order,
+        long loadMillis,
+        long expiresAtMillis
+) {
+
+    /**
+     * XFetch: each read volunteers to reload with a probability that grows as expiry gets closer
+     * and with how expensive the load is, so a hot key is reloaded by one reader shortly before it
+     * expires instead of by all of them right after.
+     */
+    public boolean shouldRefresh(long nowMillis, double beta) {
+        return nowMillis - loadMillis * beta * Math.log(ThreadLocalRandom.current().nextDouble()) >= expiresAtMillis;
+    }
+}
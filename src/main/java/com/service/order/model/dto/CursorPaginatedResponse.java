@@ -0,0 +1,11 @@
+package com.service.order.model.dto;
+
+import java.util.List;
+
+public record CursorPaginatedResponse<T>(
+        List<T> content,
+        Integer pageSize,
+        String nextCursor,
+        Long totalElements
+) {
+}
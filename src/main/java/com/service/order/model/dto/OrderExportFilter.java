@@ -0,0 +1,10 @@
+package com.service.order.model.dto;
+
+import java.time.LocalDate;
+
+public record OrderExportFilter(
+        Long customerId,
+        LocalDate from,
+        LocalDate to
+) {
+}
@@ -0,0 +1,15 @@
+package com.service.order.model.dto;
+
+import com.service.order.model.enums.OrderStatus;
+
+import java.math.BigDecimal;
+
+public record OrderReportRow(
+        Long id,
+        String orderNumber,
+        Long customerId,
+        String orderDate,
+        OrderStatus status,
+        BigDecimal totalAmount
+) {
+}
@@ -0,0 +1,10 @@
+package com.service.order.model.dto.response;
+
+import java.util.List;
+
+public record BatchOrderResponseDto(
+        int created,
+        int failed,
+        List<BatchOrderResultDto> results
+) {
+}
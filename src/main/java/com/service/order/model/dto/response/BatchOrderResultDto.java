@@ -0,0 +1,23 @@
+package com.service.order.model.dto.response;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Outcome of one order of a batch, {@code index} is its position in the request. Either
+ * {@code order} or {@code error} is set.
+ */
+public record BatchOrderResultDto(
+        int index,
+        OrderResponseDto order,
+        String error,
+        HttpStatus httpStatus
+) {
+
+    public static BatchOrderResultDto created(int index, OrderResponseDto order) {
+        return new BatchOrderResultDto(index, order, null, HttpStatus.CREATED);
+    }
+
+    public static BatchOrderResultDto failed(int index, String error, HttpStatus httpStatus) {
+        return new BatchOrderResultDto(index, null, error, httpStatus);
+    }
+}
@@ -0,0 +1,17 @@
+package com.service.order.model.dto.response;
+
+import com.service.order.model.enums.IntakeStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record OrderIntakeStatusDto(
+        UUID trackingId,
+        IntakeStatus status,
+        Long orderId,
+        String error,
+        int attempts,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
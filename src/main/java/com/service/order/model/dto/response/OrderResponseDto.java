@@ -23,6 +23,7 @@ public record OrderResponseDto(
         BigDecimal discount,
         BigDecimal taxAmount,
         OrderSource orderSource,
-        String notes
+        String notes,
+        Long version
 ) {
 }
@@ -1,10 +0,0 @@
-package com.service.order.model.dto.response;
-
-import org.springframework.http.HttpStatus;
-
-public record ProductResponseDto(
-        ProductDetailsDto payload,
-        String message,
-        HttpStatus httpStatus
-) {
-}
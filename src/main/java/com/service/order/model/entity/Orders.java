@@ -25,7 +25,8 @@ import java.util.List;
 @Table(name = "orders")
 public class Orders {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_number", nullable = false, unique = true)
@@ -73,5 +74,11 @@ public class Orders {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    // optimistic lock, bumped by every update and carried by the delta events; an update that raced
+    // another one fails on flush instead of overwriting it
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 
 }
@@ -0,0 +1,14 @@
+package com.service.order.model.enums;
+
+public enum IntakeStatus {
+
+    PENDING("Pending"),
+    COMPLETED("Completed"),
+    FAILED("Failed");
+
+    private String description;
+
+    IntakeStatus(String description) {
+        this.description = description;
+    }
+}
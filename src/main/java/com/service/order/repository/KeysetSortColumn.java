@@ -0,0 +1,77 @@
+package com.service.order.repository;
+
+import com.service.order.model.entity.Orders;
+import com.service.order.model.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Columns the order listing can be seek-paginated by. Each one is backed by an index on
+ * {@code (column, id)}, see V6__create_keyset_pagination_indexes.sql.
+ */
+public enum KeysetSortColumn {
+
+    ID("id", "id", "bigint", Orders::getId, Long::valueOf),
+    // read back from the database the date has a space instead of the 'T'
+    ORDER_DATE("orderDate", "order_date", "timestamp", Orders::getOrderDate, key -> LocalDateTime.parse(key.replace(' ', 'T'))),
+    CUSTOMER_ID("customerId", "customer_id", "bigint", Orders::getCustomerId, Long::valueOf),
+    TOTAL_AMOUNT("totalAmount", "total_amount", "numeric", Orders::getTotalAmount, BigDecimal::new),
+    // bound by name, a native query would bind the enum itself as its ordinal
+    STATUS("status", "status", "varchar", Orders::getStatus, key -> OrderStatus.valueOf(key).name());
+
+    private final String property;
+    private final String column;
+    private final String sqlType;
+    private final Function<Orders, Object> extractor;
+    private final Function<String, Object> parser;
+
+    KeysetSortColumn(String property, String column, String sqlType, Function<Orders, Object> extractor, Function<String, Object> parser) {
+        this.property = property;
+        this.column = column;
+        this.sqlType = sqlType;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public static Optional<KeysetSortColumn> fromProperty(String property) {
+        return Arrays.stream(values()).filter(value -> value.property.equals(property)).findFirst();
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    String getColumn() {
+        return column;
+    }
+
+    String getSqlType() {
+        return sqlType;
+    }
+
+    public String keyOf(Orders order) {
+        Object key = extractor.apply(order);
+        return key instanceof Enum<?> value ? value.name() : String.valueOf(key);
+    }
+
+    /**
+     * Reads back a key written by {@link #keyOf} as a value of this column.
+     *
+     * @throws IllegalArgumentException if {@code key} isn't a value of this column
+     */
+    public Object parseKey(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Missing " + property + " key");
+        }
+        try {
+            return parser.apply(key);
+        } catch (DateTimeException ex) {
+            throw new IllegalArgumentException("Malformed " + property + " key: " + key, ex);
+        }
+    }
+}
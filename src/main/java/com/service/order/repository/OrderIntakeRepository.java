@@ -0,0 +1,36 @@
+package com.service.order.repository;
+
+import com.service.order.model.entity.OrderIntake;
+import com.service.order.model.enums.IntakeStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, UUID> {
+
+    // rows stay locked until the claiming transaction ends, other workers skip them; the claimer then
+    // leases them by moving next_attempt_at past the time it needs to process them
+    @Query(value = "select * from order_intake where status = 'PENDING' and next_attempt_at <= now() " +
+            "order by next_attempt_at limit :limit for update skip locked", nativeQuery = true)
+    List<OrderIntake> claimDue(@Param("limit") int limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from OrderIntake i where i.trackingId in :trackingIds")
+    List<OrderIntake> lockAllById(@Param("trackingIds") Collection<UUID> trackingIds);
+
+    long countByStatus(IntakeStatus status);
+
+    @Modifying
+    @Query("delete from OrderIntake i where i.status <> com.service.order.model.enums.IntakeStatus.PENDING and i.updatedAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
@@ -4,7 +4,12 @@ import com.service.order.model.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     OrderItem findByProductId(String productId);
+
+    List<OrderItem> findByOrderIdIn(Collection<Long> orderIds);
 }
@@ -1,14 +1,30 @@
 package com.service.order.repository;
 
+import com.service.order.model.dto.OrderReportRow;
 import com.service.order.model.entity.Orders;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface OrderRepository extends JpaRepository<Orders, Long> {
+public interface OrderRepository extends JpaRepository<Orders, Long>, OrderRepositoryCustom {
     Boolean existsByOrderNumber(String orderNumber);
 
     @Query(value = "select nextval('order_number_seq')", nativeQuery = true)
     Long findNextValOfSequence();
+
+    @Query(value = "select increment_by from pg_sequences where sequencename = 'order_number_seq'", nativeQuery = true)
+    Long findOrderNumberSequenceIncrement();
+
+    @Query("select new com.service.order.model.dto.OrderReportRow(o.id, o.orderNumber, o.customerId, o.orderDate, o.status, o.totalAmount) " +
+            "from Orders o where o.id > :lastId order by o.id")
+    List<OrderReportRow> findReportRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query(value = "select o.id from Orders o", countQuery = "select count(o) from Orders o")
+    Page<Long> findIds(Pageable pageable);
 }
@@ -0,0 +1,15 @@
+package com.service.order.repository;
+
+import com.service.order.model.entity.Orders;
+
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} orders sorted by {@code (sortColumn, id)} that come after the
+     * row identified by {@code lastKey}/{@code lastId}, or the first rows when {@code lastId} is null.
+     * {@code lastKey} is a value of the sort column, see {@link KeysetSortColumn#parseKey}.
+     */
+    List<Orders> findPageAfter(KeysetSortColumn sortColumn, boolean descending, Object lastKey, Long lastId, int limit);
+}
@@ -0,0 +1,51 @@
+package com.service.order.repository;
+
+import com.service.order.model.entity.Orders;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.List;
+
+class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Orders> findPageAfter(KeysetSortColumn sortColumn, boolean descending, Object lastKey, Long lastId, int limit) {
+        String direction = descending ? "desc" : "asc";
+        String comparison = descending ? "<" : ">";
+
+        StringBuilder sql = new StringBuilder("select o.* from orders o");
+
+        // row value comparison so Postgres can seek straight into the (column, id) index
+        if (lastId != null) {
+            if (sortColumn == KeysetSortColumn.ID) {
+                sql.append(" where o.id ").append(comparison).append(" :lastId");
+            } else {
+                sql.append(" where (o.").append(sortColumn.getColumn()).append(", o.id) ").append(comparison)
+                        .append(" (cast(:lastKey as ").append(sortColumn.getSqlType()).append("), :lastId)");
+            }
+        }
+
+        if (sortColumn != KeysetSortColumn.ID) {
+            sql.append(" order by o.").append(sortColumn.getColumn()).append(' ').append(direction).append(", o.id ").append(direction);
+        } else {
+            sql.append(" order by o.id ").append(direction);
+        }
+        sql.append(" limit :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Orders.class);
+        if (lastId != null) {
+            query.setParameter("lastId", lastId);
+            if (sortColumn != KeysetSortColumn.ID) {
+                query.setParameter("lastKey", lastKey);
+            }
+        }
+        query.setParameter("limit", limit);
+
+        return query.getResultList();
+    }
+}
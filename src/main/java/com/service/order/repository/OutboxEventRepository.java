@@ -0,0 +1,36 @@
+package com.service.order.repository;
+
+import com.service.order.model.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(value = "select * from order_outbox order by id limit :limit", nativeQuery = true)
+    List<OutboxEvent> findNextBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    void deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // the oldest event by id, one primary key index lookup
+    @Query("select e.createdAt from OutboxEvent e order by e.id limit 1")
+    LocalDateTime findOldestCreatedAt();
+
+    // ids are drawn one by one, so the span of the ids left is the backlog (rolled back ids included),
+    // both ends being index lookups instead of a count of the table
+    @Query(value = "select coalesce(max(id) - min(id) + 1, 0) from order_outbox", nativeQuery = true)
+    long estimatePending();
+
+    // held until the end of the transaction, so only one node relays at a time and per-order ordering is kept
+    @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryLock(@Param("key") long key);
+}
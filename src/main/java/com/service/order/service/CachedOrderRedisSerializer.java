@@ -0,0 +1,241 @@
+package com.service.order.service;
+
+import com.service.order.model.dto.CachedOrder;
+import com.service.order.model.dto.OrderItemDto;
+import com.service.order.model.dto.response.OrderResponseDto;
+import com.service.order.model.enums.OrderSource;
+import com.service.order.model.enums.OrderStatus;
+import com.service.order.model.enums.PaymentMethod;
+import com.service.order.util.BinaryIO;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary Redis format of {@link CachedOrder}, with no type metadata and a fraction of the size
+ * of the JSON it replaces.
+ * <p>
+ * Format, version 1 ({@code var}, {@code str} and {@code dec} as written by {@link BinaryIO}):
+ * <pre>
+ * u8   format version
+ * u8   flags: 1 body is deflated
+ * var  body length before compression (if deflated)
+ * body:
+ *   var  load millis, var expires at millis
+ *   u16  presence mask, bit n set when the n-th component of OrderResponseDto is not null
+ *   present components in declaration order: var for numbers, str for strings and enum names,
+ *   dec for amounts, and for the items var count then str product id, var quantity per item
+ * </pre>
+ * Bodies of at least {@code compressionThreshold} bytes are deflated. Values in an unknown format
+ * (an older or newer release) read as null, so they count as a cache miss and get overwritten.
+ */
+public class CachedOrderRedisSerializer implements RedisSerializer<CachedOrder> {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int DEFLATED = 1;
+
+    // zlib streams are costly to set up, so a few are kept and reset between calls. A pool rather than
+    // a ThreadLocal: virtual threads come and go, and each would leave its native stream behind until GC
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final BlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final BlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final int compressionThreshold;
+
+    public CachedOrderRedisSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(CachedOrder value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+
+        byte[] body = writeBody(value);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 8);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            if (body.length >= compressionThreshold) {
+                out.writeByte(DEFLATED);
+                BinaryIO.writeVarLong(out, body.length);
+                out.write(deflate(body));
+            } else {
+                out.writeByte(0);
+                out.write(body);
+            }
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot serialize cached order " + value.order().id(), ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public CachedOrder deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < 2 || bytes[0] != FORMAT_VERSION) {
+            return null;
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2));
+            if ((bytes[1] & DEFLATED) != 0) {
+                int length = (int) BinaryIO.readVarLong(in);
+                in = new DataInputStream(new ByteArrayInputStream(inflate(in.readAllBytes(), length)));
+            }
+            return readBody(in);
+        } catch (IOException | DataFormatException | IllegalArgumentException ex) {
+            throw new SerializationException("Cannot deserialize cached order", ex);
+        }
+    }
+
+    private static byte[] writeBody(CachedOrder value) {
+        OrderResponseDto order = value.order();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BinaryIO.writeVarLong(out, value.loadMillis());
+            BinaryIO.writeVarLong(out, value.expiresAtMillis());
+
+            Object[] components = {order.id(), order.orderNumber(), order.customerId(), order.orderDate(), order.status(),
+                    order.totalAmount(), order.shippingAddress(), order.paymentMethod(), order.orderItems(), order.shippingCost(),
+                    order.discount(), order.taxAmount(), order.orderSource(), order.notes(), order.version()};
+
+            int mask = 0;
+            for (int i = 0; i < components.length; i++) {
+                if (components[i] != null) {
+                    mask |= 1 << i;
+                }
+            }
+            out.writeShort(mask);
+
+            for (Object component : components) {
+                writeComponent(out, component);
+            }
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot serialize cached order " + order.id(), ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeComponent(DataOutputStream out, Object component) throws IOException {
+        if (component == null) {
+            return;
+        }
+        if (component instanceof Long number) {
+            BinaryIO.writeVarLong(out, number);
+        } else if (component instanceof String string) {
+            BinaryIO.writeString(out, string);
+        } else if (component instanceof Enum<?> constant) {
+            BinaryIO.writeString(out, constant.name());
+        } else if (component instanceof BigDecimal amount) {
+            BinaryIO.writeDecimal(out, amount);
+        } else {
+            List<OrderItemDto> items = (List<OrderItemDto>) component;
+            BinaryIO.writeVarLong(out, items.size());
+            for (OrderItemDto item : items) {
+                BinaryIO.writeString(out, item.productId());
+                BinaryIO.writeVarLong(out, item.quantity());
+            }
+        }
+    }
+
+    private static CachedOrder readBody(DataInputStream in) throws IOException {
+        long loadMillis = BinaryIO.readVarLong(in);
+        long expiresAtMillis = BinaryIO.readVarLong(in);
+        int mask = in.readUnsignedShort();
+
+        OrderResponseDto order = new OrderResponseDto(
+                present(mask, 0) ? BinaryIO.readVarLong(in) : null,
+                present(mask, 1) ? BinaryIO.readString(in) : null,
+                present(mask, 2) ? BinaryIO.readVarLong(in) : null,
+                present(mask, 3) ? BinaryIO.readString(in) : null,
+                present(mask, 4) ? OrderStatus.valueOf(BinaryIO.readString(in)) : null,
+                present(mask, 5) ? BinaryIO.readDecimal(in) : null,
+                present(mask, 6) ? BinaryIO.readString(in) : null,
+                present(mask, 7) ? PaymentMethod.valueOf(BinaryIO.readString(in)) : null,
+                present(mask, 8) ? readItems(in) : null,
+                present(mask, 9) ? BinaryIO.readDecimal(in) : null,
+                present(mask, 10) ? BinaryIO.readDecimal(in) : null,
+                present(mask, 11) ? BinaryIO.readDecimal(in) : null,
+                present(mask, 12) ? OrderSource.valueOf(BinaryIO.readString(in)) : null,
+                present(mask, 13) ? BinaryIO.readString(in) : null,
+                present(mask, 14) ? BinaryIO.readVarLong(in) : null);
+
+        return new CachedOrder(order, loadMillis, expiresAtMillis);
+    }
+
+    private static boolean present(int mask, int component) {
+        return (mask & (1 << component)) != 0;
+    }
+
+    private static List<OrderItemDto> readItems(DataInputStream in) throws IOException {
+        int count = (int) BinaryIO.readVarLong(in);
+        List<OrderItemDto> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new OrderItemDto(BinaryIO.readString(in), BinaryIO.readVarLong(in)));
+        }
+        return items;
+    }
+
+    private static byte[] deflate(byte[] body) {
+        Deflater deflater = DEFLATERS.poll();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.reset();
+            if (!DEFLATERS.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int length) throws DataFormatException {
+        Inflater inflater = INFLATERS.poll();
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        try {
+            inflater.setInput(compressed);
+            byte[] body = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(body, read, length - read);
+                if (n == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("Truncated cached order");
+                }
+                read += n;
+            }
+            return body;
+        } finally {
+            inflater.reset();
+            if (!INFLATERS.offer(inflater)) {
+                inflater.end();
+            }
+        }
+    }
+}
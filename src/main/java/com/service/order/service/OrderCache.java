@@ -0,0 +1,297 @@
+package com.service.order.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.model.dto.CachedOrder;
+import com.service.order.model.dto.response.OrderResponseDto;
+import com.service.order.util.Constants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Two-tier cache of order responses: a bounded in-process tier in front of the shared
+ * {@code order:<id>} Redis keys.
+ * <p>
+ * {@link #evict} deletes the Redis key and publishes the id on the invalidation channel, every
+ * node (this one included) drops its local entry when the message arrives. Local entries also
+ * expire after {@code order.cache.local-ttl} in case a message is lost. Hits and misses of each
+ * tier are published as {@code cache.gets} with {@code cache=orders.local} and {@code cache=orders.redis}.
+ * <p>
+ * Loads are single-flight per key and node: concurrent misses of one order wait for the first
+ * caller's load instead of each querying the database. Redis entries are reloaded a little before
+ * they expire, see {@link CachedOrder#shouldRefresh}.
+ */
+@Component
+@Slf4j
+public class OrderCache {
+
+    private static final String LOCAL_CACHE_NAME = "orders.local";
+    private static final String REDIS_CACHE_NAME = "orders.redis";
+
+    private final RedisTemplate<String, CachedOrder> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<Long, OrderResponseDto> local;
+    private final String invalidationChannel;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter earlyRefreshes;
+    private final ConcurrentMap<Long, CompletableFuture<OrderResponseDto>> inFlight = new ConcurrentHashMap<>();
+    private final long timeToLiveMillis;
+    private final double earlyExpiryBeta;
+
+    @Autowired
+    OrderCache(RedisTemplate<String, CachedOrder> redisTemplate, StringRedisTemplate stringRedisTemplate, RedisMessageListenerContainer listenerContainer, OrderServiceConfig orderServiceConfig, MeterRegistry meterRegistry, @Value("${redis.cache.ttl}") long timeToLive) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.timeToLiveMillis = TimeUnit.MINUTES.toMillis(timeToLive);
+
+        OrderServiceConfig.Cache settings = orderServiceConfig.getCache();
+        this.invalidationChannel = settings.getInvalidationChannel();
+        this.earlyExpiryBeta = settings.getEarlyExpiryBeta();
+
+        this.local = Caffeine.newBuilder()
+                .maximumSize(settings.getLocalMaximumSize())
+                .expireAfterWrite(settings.getLocalTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, LOCAL_CACHE_NAME);
+        this.redisHits = redisCounter(meterRegistry, "hit");
+        this.redisMisses = redisCounter(meterRegistry, "miss");
+        this.earlyRefreshes = Counter.builder("cache.early.refreshes")
+                .description("Redis entries reloaded ahead of their expiry")
+                .tag("cache", REDIS_CACHE_NAME)
+                .register(meterRegistry);
+
+        listenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(invalidationChannel));
+    }
+
+    private static Counter redisCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.gets")
+                .description("The number of times cache lookup methods have returned a cached (hit) or uncached (miss) value")
+                .tag("cache", REDIS_CACHE_NAME)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached order, looking at the local tier, then Redis, then calling {@code loader}.
+     * Whatever is found fills the tiers in front of it.
+     */
+    public OrderResponseDto get(Long id, Function<Long, OrderResponseDto> loader) {
+        OrderResponseDto order = local.getIfPresent(id);
+        if (order != null) {
+            return order;
+        }
+
+        CachedOrder cached = redisTemplate.opsForValue().get(key(id));
+        if (cached == null) {
+            redisMisses.increment();
+            return loadOnce(id, loader);
+        }
+
+        redisHits.increment();
+        if (cached.shouldRefresh(System.currentTimeMillis(), earlyExpiryBeta)) {
+            // one caller reloads, the others keep getting the current value meanwhile
+            CompletableFuture<OrderResponseDto> load = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(id, load) == null) {
+                earlyRefreshes.increment();
+                return load(id, loader, load);
+            }
+        }
+
+        local.put(id, cached.order());
+        return cached.order();
+    }
+
+    private OrderResponseDto loadOnce(Long id, Function<Long, OrderResponseDto> loader) {
+        CompletableFuture<OrderResponseDto> load = new CompletableFuture<>();
+        CompletableFuture<OrderResponseDto> running = inFlight.putIfAbsent(id, load);
+        if (running != null) {
+            return await(running);
+        }
+
+        // a load that finished between our miss and now has already filled the local tier
+        OrderResponseDto order = local.getIfPresent(id);
+        if (order != null) {
+            inFlight.remove(id, load);
+            load.complete(order);
+            return order;
+        }
+        return load(id, loader, load);
+    }
+
+    private OrderResponseDto load(Long id, Function<Long, OrderResponseDto> loader, CompletableFuture<OrderResponseDto> load) {
+        try {
+            long start = System.currentTimeMillis();
+            OrderResponseDto order = loader.apply(id);
+            long now = System.currentTimeMillis();
+
+            redisTemplate.opsForValue().set(key(id), new CachedOrder(order, now - start, now + timeToLiveMillis), timeToLiveMillis, TimeUnit.MILLISECONDS);
+            local.put(id, order);
+            load.complete(order);
+            return order;
+        } catch (RuntimeException ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(id, load);
+        }
+    }
+
+    private static OrderResponseDto await(CompletableFuture<OrderResponseDto> load) {
+        try {
+            return load.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the cached orders in the order of {@code ids}: the local tier is checked first, the
+     * rest is read with one MGET and the misses are loaded with one {@code loader} call and written
+     * back to Redis in one pipeline. Orders the loader doesn't return are left out.
+     */
+    public List<OrderResponseDto> getAll(List<Long> ids, Function<List<Long>, List<OrderResponseDto>> loader) {
+        Map<Long, OrderResponseDto> found = new HashMap<>(local.getAllPresent(ids));
+        List<Long> remaining = ids.stream().filter(id -> !found.containsKey(id)).toList();
+
+        if (!remaining.isEmpty()) {
+            List<CachedOrder> values = redisTemplate.opsForValue().multiGet(remaining.stream().map(OrderCache::key).toList());
+
+            List<Long> misses = new ArrayList<>();
+            for (int i = 0; i < remaining.size(); i++) {
+                CachedOrder cached = values != null ? values.get(i) : null;
+                if (cached != null) {
+                    found.put(remaining.get(i), cached.order());
+                    local.put(remaining.get(i), cached.order());
+                } else {
+                    misses.add(remaining.get(i));
+                }
+            }
+            redisHits.increment(remaining.size() - misses.size());
+            redisMisses.increment(misses.size());
+
+            if (!misses.isEmpty()) {
+                long start = System.currentTimeMillis();
+                List<OrderResponseDto> loaded = loader.apply(misses);
+                backfill(loaded, System.currentTimeMillis() - start);
+                loaded.forEach(order -> {
+                    found.put(order.id(), order);
+                    local.put(order.id(), order);
+                });
+            }
+        }
+
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void backfill(List<OrderResponseDto> orders, long loadMillis) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + timeToLiveMillis;
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ValueOperations<String, CachedOrder> values = ((RedisOperations<String, CachedOrder>) operations).opsForValue();
+                orders.forEach(order -> values.set(key(order.id()), new CachedOrder(order, loadMillis, expiresAt), timeToLiveMillis, TimeUnit.MILLISECONDS));
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Caches the order in both tiers. Inside a transaction this waits for the commit, so an order
+     * whose transaction rolls back is never served from the cache.
+     */
+    public void put(OrderResponseDto order) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putNow(order);
+                }
+            });
+        } else {
+            putNow(order);
+        }
+    }
+
+    private void putNow(OrderResponseDto order) {
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForValue().set(key(order.id()), new CachedOrder(order, 0, now + timeToLiveMillis), timeToLiveMillis, TimeUnit.MILLISECONDS);
+        local.put(order.id(), order);
+    }
+
+    /**
+     * Removes the order from Redis and from the local tier of every node. Inside a transaction the
+     * eviction is repeated after commit, so a reader that reloaded the old row in between doesn't
+     * leave it cached.
+     */
+    public void evict(Long id) {
+        evictNow(id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long id) {
+        local.invalidate(id);
+        redisTemplate.delete(key(id));
+        stringRedisTemplate.convertAndSend(invalidationChannel, id.toString());
+    }
+
+    private static String key(Long id) {
+        return Constants.ORDER_CACHE_KEY_PREFIX + id;
+    }
+
+    private void onInvalidation(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            local.invalidate(Long.valueOf(body));
+        } catch (NumberFormatException ex) {
+            log.warn("Ignoring malformed order cache invalidation message: {}", body);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.service.order.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.metrics.OrderStages;
+import com.service.order.model.dto.OrderExportFilter;
+import com.service.order.model.dto.OrderReportRow;
+import com.service.order.repository.OrderRepository;
+import com.service.order.util.Constants;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class OrderExportService {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final OrderRepository orderRepository;
+    private final OrderServiceConfig orderServiceConfig;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OrderStages orderStages;
+
+    @Autowired
+    OrderExportService(OrderRepository orderRepository, OrderServiceConfig orderServiceConfig, DataSource dataSource, ObjectMapper objectMapper, OrderStages orderStages) {
+        this.orderRepository = orderRepository;
+        this.orderServiceConfig = orderServiceConfig;
+        this.objectMapper = objectMapper;
+        this.orderStages = orderStages;
+        // with autocommit off (inside a transaction) pgjdbc fetches the result set in chunks of fetchSize
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(orderServiceConfig.getExport().getFetchSize());
+    }
+
+    /**
+     * Walks the orders table in id order, one keyset page at a time, so only a single page of
+     * report rows is ever held in memory.
+     */
+    private void forEachReportRow(ReportRowWriter writer) throws IOException {
+        int fetchSize = orderServiceConfig.getExport().getFetchSize();
+        Long lastId = 0L;
+
+        while (true) {
+            List<OrderReportRow> rows = orderRepository.findReportRowsAfter(lastId, PageRequest.of(0, fetchSize));
+
+            for (OrderReportRow row : rows) {
+                writer.write(row);
+            }
+
+            if (rows.size() < fetchSize) {
+                return;
+            }
+            lastId = rows.get(rows.size() - 1).id();
+        }
+    }
+
+    public void exportOrdersReportInExcel(HttpServletResponse response) throws IOException {
+        orderStages.operation("exportExcel", 0, () -> writeExcelReport(response));
+    }
+
+    private void writeExcelReport(HttpServletResponse response) throws IOException {
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setHeader("Content-Disposition", "attachment; filename=orders.xlsx");
+
+        // only the last rowWindow rows stay in memory, older rows are flushed to a temp file
+        SXSSFWorkbook workbook = new SXSSFWorkbook(orderServiceConfig.getExport().getExcelRowWindow());
+        workbook.setCompressTempFiles(true);
+
+        try {
+            Sheet sheet = workbook.createSheet("ordersSheet");
+
+            sheet.setColumnWidth(0, 20 * 256);
+            sheet.setColumnWidth(1, 20 * 256);
+            sheet.setColumnWidth(2, 20 * 256);
+            sheet.setColumnWidth(3, 30 * 256);
+            sheet.setColumnWidth(4, 20 * 256);
+            sheet.setColumnWidth(5, 20 * 256);
+
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("order id");
+            header.createCell(1).setCellValue("order number");
+            header.createCell(2).setCellValue("customer id");
+            header.createCell(3).setCellValue("order date");
+            header.createCell(4).setCellValue("order status");
+            header.createCell(5).setCellValue("total amount");
+
+            int[] rowNumber = {1};
+
+            orderStages.stage("rows", () -> forEachReportRow(order -> {
+                Row row = sheet.createRow(rowNumber[0]++);
+                row.createCell(0).setCellValue(order.id());
+                row.createCell(1).setCellValue(order.orderNumber());
+                row.createCell(2).setCellValue(order.customerId());
+                row.createCell(3).setCellValue(order.orderDate());
+                row.createCell(4).setCellValue(order.status().toString());
+                row.createCell(5).setCellValue(Constants.parseToString(order.totalAmount()));
+            }));
+
+            orderStages.stage("write", () -> workbook.write(response.getOutputStream()));
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    public void exportOrdersReportInPdf(HttpServletResponse response) throws IOException {
+        orderStages.operation("exportPdf", 0, () -> writePdfReport(response));
+    }
+
+    private void writePdfReport(HttpServletResponse response) throws IOException {
+        response.setContentType("application/pdf");
+        response.setHeader("Content-Disposition", "attachment; filename=orders.pdf");
+
+        // keep at most pdfMaxMainMemory of the document in heap, the rest goes to a scratch file
+        MemoryUsageSetting memoryUsageSetting = MemoryUsageSetting.setupMixed(orderServiceConfig.getExport().getPdfMaxMainMemory().toBytes());
+
+        try (OrderPdfReportWriter writer = new OrderPdfReportWriter(memoryUsageSetting)) {
+            orderStages.stage("rows", () -> forEachReportRow(writer::writeRow));
+            orderStages.stage("write", () -> writer.save(response.getOutputStream()));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportOrdersReportInCsv(OrderExportFilter filter, boolean gzip, HttpServletResponse response) throws IOException {
+        // rows are read and written interleaved, the export is timed as a whole
+        orderStages.operation("exportCsv", 0, () -> writeCsvReport(filter, gzip, response));
+    }
+
+    private void writeCsvReport(OrderExportFilter filter, boolean gzip, HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=orders.csv" + (gzip ? ".gz" : ""));
+
+        try (OutputStream out = openOutputStream(response, gzip)) {
+            out.write("id,order_number,customer_id,order_date,status,total_amount\n".getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder line = new StringBuilder(128);
+
+            streamReportRows(filter, resultSet -> {
+                line.setLength(0);
+                line.append(resultSet.getLong(1)).append(',');
+                appendCsvValue(line, resultSet.getString(2)).append(',');
+                line.append(resultSet.getLong(3)).append(',');
+                appendCsvValue(line, resultSet.getString(4)).append(',');
+                appendCsvValue(line, resultSet.getString(5)).append(',');
+                appendCsvValue(line, resultSet.getString(6)).append('\n');
+                write(out, line.toString().getBytes(StandardCharsets.UTF_8));
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportOrdersReportInNdjson(OrderExportFilter filter, boolean gzip, HttpServletResponse response) throws IOException {
+        orderStages.operation("exportNdjson", 0, () -> writeNdjsonReport(filter, gzip, response));
+    }
+
+    private void writeNdjsonReport(OrderExportFilter filter, boolean gzip, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setHeader("Content-Disposition", "attachment; filename=orders.ndjson" + (gzip ? ".gz" : ""));
+
+        try (OutputStream out = openOutputStream(response, gzip);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // one object per line, the newline is written after each row
+            generator.setRootValueSeparator(null);
+
+            streamReportRows(filter, resultSet -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", resultSet.getLong(1));
+                    generator.writeStringField("orderNumber", resultSet.getString(2));
+                    generator.writeNumberField("customerId", resultSet.getLong(3));
+                    generator.writeStringField("orderDate", resultSet.getString(4));
+                    generator.writeStringField("status", resultSet.getString(5));
+                    generator.writeNumberField("totalAmount", resultSet.getBigDecimal(6));
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs the filtered report query and hands every row to {@code handler} as it is read from the
+     * database cursor, without materializing the result.
+     */
+    private void streamReportRows(OrderExportFilter filter, RowCallbackHandler handler) throws IOException {
+        StringBuilder sql = new StringBuilder("select id, order_number, customer_id, order_date, status, total_amount from orders where 1 = 1");
+        List<Object> params = new ArrayList<>();
+
+        if (filter.customerId() != null) {
+            sql.append(" and customer_id = ?");
+            params.add(filter.customerId());
+        }
+        if (filter.from() != null) {
+            sql.append(" and order_date >= ?");
+            params.add(Timestamp.valueOf(filter.from().atStartOfDay()));
+        }
+        if (filter.to() != null) {
+            sql.append(" and order_date < ?");
+            params.add(Timestamp.valueOf(filter.to().plusDays(1).atStartOfDay()));
+        }
+        sql.append(" order by id");
+
+        try {
+            streamingJdbcTemplate.query(sql.toString(), handler, params.toArray());
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private OutputStream openOutputStream(HttpServletResponse response, boolean gzip) throws IOException {
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+            return new BufferedOutputStream(new GZIPOutputStream(response.getOutputStream(), OUTPUT_BUFFER_SIZE), OUTPUT_BUFFER_SIZE);
+        }
+        return new BufferedOutputStream(response.getOutputStream(), OUTPUT_BUFFER_SIZE);
+    }
+
+    private static void write(OutputStream out, byte[] bytes) {
+        try {
+            out.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static StringBuilder appendCsvValue(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    @FunctionalInterface
+    private interface ReportRowWriter {
+        void write(OrderReportRow row) throws IOException;
+    }
+}
@@ -0,0 +1,96 @@
+package com.service.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.exception.BusinessException;
+import com.service.order.exception.OrderIntakeFullException;
+import com.service.order.model.dto.request.OrderRequestDto;
+import com.service.order.model.dto.response.OrderIntakeStatusDto;
+import com.service.order.model.entity.OrderIntake;
+import com.service.order.model.enums.IntakeStatus;
+import com.service.order.repository.OrderIntakeRepository;
+import com.service.order.util.Constants;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accepts orders to be created in the background by {@link OrderIntakeWorker}. A request is
+ * stored in {@code order_intake} and answered with its tracking id as soon as it's committed.
+ * <p>
+ * The number of pending requests is counted by the workers on every poll and incremented on every
+ * accepted request in between; past {@code order.intake.max-pending} requests are turned away
+ * with a 503 until the workers catch up.
+ */
+@Service
+public class OrderIntakeService {
+
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final ObjectMapper objectMapper;
+    private final OrderServiceConfig orderServiceConfig;
+    private final AtomicLong pending = new AtomicLong();
+
+    @Autowired
+    OrderIntakeService(OrderIntakeRepository orderIntakeRepository, ObjectMapper objectMapper, OrderServiceConfig orderServiceConfig, MeterRegistry meterRegistry) {
+        this.orderIntakeRepository = orderIntakeRepository;
+        this.objectMapper = objectMapper;
+        this.orderServiceConfig = orderServiceConfig;
+
+        Gauge.builder("order.intake.pending", pending, AtomicLong::get)
+                .description("Orders accepted by the intake endpoint and not processed yet")
+                .register(meterRegistry);
+    }
+
+    public OrderIntakeStatusDto submit(OrderRequestDto requestDto) {
+        OrderServiceConfig.Intake intake = orderServiceConfig.getIntake();
+        if (pending.get() >= intake.getMaxPending()) {
+            throw new OrderIntakeFullException(Constants.ORDER_INTAKE_FULL, Math.max(1, TimeUnit.MILLISECONDS.toSeconds(intake.getPollIntervalMs())));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OrderIntake orderIntake;
+        try {
+            orderIntake = orderIntakeRepository.save(OrderIntake.builder()
+                    .trackingId(UUID.randomUUID())
+                    .payload(objectMapper.writeValueAsBytes(requestDto))
+                    .status(IntakeStatus.PENDING)
+                    .nextAttemptAt(now)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        } catch (JsonProcessingException ex) {
+            throw new BusinessException(Constants.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+        }
+        pending.incrementAndGet();
+
+        return toStatusDto(orderIntake);
+    }
+
+    public OrderIntakeStatusDto getStatus(UUID trackingId) {
+        return orderIntakeRepository.findById(trackingId)
+                .map(OrderIntakeService::toStatusDto)
+                .orElseThrow(() -> new BusinessException(Constants.ORDER_INTAKE_NOT_FOUND, HttpStatus.NOT_FOUND));
+    }
+
+    void refreshPending() {
+        pending.set(orderIntakeRepository.countByStatus(IntakeStatus.PENDING));
+    }
+
+    private static OrderIntakeStatusDto toStatusDto(OrderIntake orderIntake) {
+        return new OrderIntakeStatusDto(orderIntake.getTrackingId(),
+                orderIntake.getStatus(),
+                orderIntake.getOrderId(),
+                orderIntake.getError(),
+                orderIntake.getAttempts(),
+                orderIntake.getCreatedAt(),
+                orderIntake.getUpdatedAt());
+    }
+}
@@ -0,0 +1,224 @@
+package com.service.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.model.dto.request.OrderRequestDto;
+import com.service.order.model.dto.response.BatchOrderResponseDto;
+import com.service.order.model.dto.response.BatchOrderResultDto;
+import com.service.order.model.entity.OrderIntake;
+import com.service.order.model.enums.IntakeStatus;
+import com.service.order.repository.OrderIntakeRepository;
+import com.service.order.util.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains {@code order_intake} through {@link OrderService#createOrders}.
+ * <p>
+ * Every poll tops the pool up to {@code order.intake.workers} workers, each one claiming batches
+ * until none is left. A batch is claimed in a short transaction that leases its requests to the
+ * worker for {@code order.intake.lease} by moving their next attempt past it. The product and
+ * inventory lookups then run without a transaction or a connection held, and a second transaction
+ * inserts the orders and records the outcomes together, provided the worker still holds the
+ * lease. A worker dying halfway leaves its requests to be claimed again once the lease runs out.
+ * Requests that fail because a downstream service was unavailable (5xx) are retried after a
+ * backoff, up to {@code max-attempts}; other failures are final.
+ */
+@Component
+@Slf4j
+public class OrderIntakeWorker {
+
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final OrderServiceConfig orderServiceConfig;
+    private final ExecutorService intakeExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore idleWorkers;
+
+    @Autowired
+    OrderIntakeWorker(OrderIntakeRepository orderIntakeRepository, OrderIntakeService orderIntakeService, OrderService orderService, ObjectMapper objectMapper, OrderServiceConfig orderServiceConfig, @Qualifier("orderIntakeExecutor") ExecutorService intakeExecutor, PlatformTransactionManager transactionManager) {
+        this.orderIntakeRepository = orderIntakeRepository;
+        this.orderIntakeService = orderIntakeService;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.orderServiceConfig = orderServiceConfig;
+        this.intakeExecutor = intakeExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idleWorkers = new Semaphore(orderServiceConfig.getIntake().getWorkers());
+    }
+
+    @Scheduled(fixedDelayString = "${order.intake.poll-interval-ms:200}")
+    public void poll() {
+        try {
+            orderIntakeService.refreshPending();
+        } catch (RuntimeException ex) {
+            log.error("Failed to count pending order intake", ex);
+            return;
+        }
+
+        while (idleWorkers.tryAcquire()) {
+            intakeExecutor.execute(() -> {
+                try {
+                    drain();
+                } finally {
+                    idleWorkers.release();
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "PT1M")
+    public void purgeFinished() {
+        LocalDateTime before = LocalDateTime.now().minus(orderServiceConfig.getIntake().getRetention());
+        Integer purged = transactionTemplate.execute(status -> orderIntakeRepository.deleteFinishedBefore(before));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} finished order intake requests", purged);
+        }
+    }
+
+    private void drain() {
+        int batchSize = orderServiceConfig.getIntake().getBatchSize();
+        int processed;
+        do {
+            processed = processBatch(batchSize);
+        } while (processed == batchSize);
+    }
+
+    int processBatch(int batchSize) {
+        // next_attempt_at keeps microseconds, the lease has to read back equal to what was written
+        LocalDateTime leaseUntil = LocalDateTime.now().plus(orderServiceConfig.getIntake().getLease()).truncatedTo(ChronoUnit.MICROS);
+
+        List<OrderIntake> claimed;
+        try {
+            claimed = transactionTemplate.execute(status -> claim(batchSize, leaseUntil));
+        } catch (RuntimeException ex) {
+            log.error("Failed to claim order intake requests", ex);
+            return 0;
+        }
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<UUID> claimedIds = claimed.stream().map(OrderIntake::getTrackingId).toList();
+        try {
+            OrderService.PreparedOrders prepared = orderService.prepareOrders(claimed.stream().map(this::readRequest).toList());
+
+            transactionTemplate.executeWithoutResult(status -> {
+                List<OrderIntake> leased = leased(claimedIds, leaseUntil);
+                if (leased.size() < claimedIds.size()) {
+                    // the lease ran out and another worker took requests of the batch over, hand back the rest
+                    log.warn("Lease of an order intake batch expired, {} of {} requests released", leased.size(), claimedIds.size());
+                    LocalDateTime now = LocalDateTime.now();
+                    leased.forEach(orderIntake -> orderIntake.setNextAttemptAt(now));
+                    return;
+                }
+                complete(leased, orderService.insertOrders(prepared));
+            });
+        } catch (RuntimeException ex) {
+            log.error("Order intake batch failed, it will be retried", ex);
+            recordFailedAttempt(claimedIds, leaseUntil);
+        }
+        return claimed.size();
+    }
+
+    private List<OrderIntake> claim(int batchSize, LocalDateTime leaseUntil) {
+        List<OrderIntake> claimed = orderIntakeRepository.claimDue(batchSize);
+        claimed.forEach(orderIntake -> orderIntake.setNextAttemptAt(leaseUntil));
+        return claimed;
+    }
+
+    /**
+     * Locks the claimed requests this worker still holds the lease of, in claim order.
+     */
+    private List<OrderIntake> leased(List<UUID> claimedIds, LocalDateTime leaseUntil) {
+        Map<UUID, OrderIntake> locked = orderIntakeRepository.lockAllById(claimedIds).stream()
+                .filter(orderIntake -> orderIntake.getStatus() == IntakeStatus.PENDING && leaseUntil.equals(orderIntake.getNextAttemptAt()))
+                .collect(Collectors.toMap(OrderIntake::getTrackingId, Function.identity()));
+
+        return claimedIds.stream()
+                .map(locked::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private OrderRequestDto readRequest(OrderIntake orderIntake) {
+        try {
+            return objectMapper.readValue(orderIntake.getPayload(), OrderRequestDto.class);
+        } catch (IOException ex) {
+            log.error("Unreadable order intake request {}", orderIntake.getTrackingId(), ex);
+            // createOrders reports a null request as invalid input
+            return null;
+        }
+    }
+
+    void complete(List<OrderIntake> claimed, BatchOrderResponseDto response) {
+        LocalDateTime now = LocalDateTime.now();
+        OrderServiceConfig.Intake intake = orderServiceConfig.getIntake();
+
+        for (int i = 0; i < claimed.size(); i++) {
+            OrderIntake orderIntake = claimed.get(i);
+            BatchOrderResultDto result = response.results().get(i);
+
+            orderIntake.setAttempts(orderIntake.getAttempts() + 1);
+            orderIntake.setUpdatedAt(now);
+
+            if (result.order() != null) {
+                orderIntake.setStatus(IntakeStatus.COMPLETED);
+                orderIntake.setOrderId(result.order().id());
+                orderIntake.setError(null);
+            } else if (result.httpStatus().is5xxServerError() && orderIntake.getAttempts() < intake.getMaxAttempts()) {
+                orderIntake.setError(result.error());
+                orderIntake.setNextAttemptAt(now.plus(intake.getRetryBackoff().multipliedBy(orderIntake.getAttempts())));
+            } else {
+                orderIntake.setStatus(IntakeStatus.FAILED);
+                orderIntake.setError(result.error());
+            }
+        }
+    }
+
+    /**
+     * The whole batch rolled back (database error), so there is nothing to tell its requests apart
+     * by. Charging each of them an attempt bounds how often a poison batch is retried.
+     */
+    private void recordFailedAttempt(List<UUID> claimedIds, LocalDateTime leaseUntil) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                OrderServiceConfig.Intake intake = orderServiceConfig.getIntake();
+
+                for (OrderIntake orderIntake : leased(claimedIds, leaseUntil)) {
+                    orderIntake.setAttempts(orderIntake.getAttempts() + 1);
+                    orderIntake.setUpdatedAt(now);
+                    if (orderIntake.getAttempts() < intake.getMaxAttempts()) {
+                        orderIntake.setNextAttemptAt(now.plus(intake.getRetryBackoff().multipliedBy(orderIntake.getAttempts())));
+                    } else {
+                        orderIntake.setStatus(IntakeStatus.FAILED);
+                        orderIntake.setError(Constants.ORDER_CREATION_FAILED);
+                    }
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.error("Failed to record a failed order intake attempt", ex);
+        }
+    }
+}
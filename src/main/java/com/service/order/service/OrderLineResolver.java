@@ -0,0 +1,231 @@
+package com.service.order.service;
+
+import com.service.order.client.InventoryClient;
+import com.service.order.client.ProductDetailsCache;
+import com.service.order.common.ApiResponse;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.exception.BusinessException;
+import com.service.order.metrics.OrderStages;
+import com.service.order.model.dto.OrderItemDto;
+import com.service.order.model.dto.response.ProductAvailability;
+import com.service.order.model.dto.response.ProductDetailsDto;
+import com.service.order.util.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the product details of every order line and checks its availability.
+ * <p>
+ * In parallel mode all product and inventory calls of an order are started at once on the
+ * bounded lookup executor and joined before pricing. The first failing call completes the
+ * whole lookup and cancels the calls that have not started yet.
+ * <p>
+ * Cancelling only stops what belongs to this order: queued inventory checks never run, but a
+ * product lookup is just detached from it. The cache load or bulk call behind a product is shared
+ * with the other requests waiting on it, so it keeps running and still fills the cache.
+ */
+@Component
+@Slf4j
+public class OrderLineResolver {
+
+    private final ProductDetailsCache productDetailsCache;
+    private final InventoryClient inventoryClient;
+    private final OrderServiceConfig orderServiceConfig;
+    private final ExecutorService lookupExecutor;
+    private final OrderStages orderStages;
+
+    @Autowired
+    OrderLineResolver(ProductDetailsCache productDetailsCache, InventoryClient inventoryClient, OrderServiceConfig orderServiceConfig, @Qualifier("orderLookupExecutor") ExecutorService lookupExecutor, OrderStages orderStages) {
+        this.productDetailsCache = productDetailsCache;
+        this.inventoryClient = inventoryClient;
+        this.orderServiceConfig = orderServiceConfig;
+        this.lookupExecutor = lookupExecutor;
+        this.orderStages = orderStages;
+    }
+
+    /**
+     * Returns the product details of each line, in the same order as {@code items}.
+     *
+     * @throws BusinessException if a product can't be loaded or isn't available in the requested quantity
+     */
+    public List<ProductDetailsDto> resolve(List<OrderItemDto> items) {
+        if (!orderServiceConfig.getLookup().isParallel()) {
+            List<ProductDetailsDto> products = new ArrayList<>(items.size());
+            for (OrderItemDto item : items) {
+                products.add(orderStages.stage("product-lookup", () -> await(productDetailsCache.get(item.productId()))));
+                orderStages.stage("inventory-check", () -> requireAvailable(item.productId(), item.quantity()));
+            }
+            return products;
+        }
+
+        List<CompletableFuture<ProductDetailsDto>> products = new ArrayList<>(items.size());
+        List<CompletableFuture<?>> calls = new ArrayList<>(items.size() * 2);
+
+        // the calls overlap, each stage is timed until its last call completed
+        long started = System.nanoTime();
+        AtomicLong productsDone = new AtomicLong(started);
+        AtomicLong availabilityDone = new AtomicLong(started);
+
+        for (OrderItemDto item : items) {
+            CompletableFuture<ProductDetailsDto> product = productDetailsCache.get(item.productId());
+            CompletableFuture<Void> availability = CompletableFuture.runAsync(() -> requireAvailable(item.productId(), item.quantity()), lookupExecutor);
+            product.whenComplete((details, ex) -> productsDone.accumulateAndGet(System.nanoTime(), Math::max));
+            availability.whenComplete((done, ex) -> availabilityDone.accumulateAndGet(System.nanoTime(), Math::max));
+            products.add(product);
+            calls.add(product);
+            calls.add(availability);
+        }
+
+        boolean failed = true;
+        try {
+            join(calls);
+            failed = false;
+        } finally {
+            orderStages.record("product-lookup", productsDone.get() - started, failed);
+            orderStages.record("inventory-check", availabilityDone.get() - started, failed);
+        }
+
+        return products.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Resolves the lines of many orders at once. Each product is looked up once and each distinct
+     * (product, quantity) availability is checked once for the whole batch, all concurrently.
+     * <p>
+     * Returns one completed future per order, in the order of {@code orders}: the product details of
+     * its lines, or the {@link BusinessException} that failed it. One failing line only fails the
+     * orders that contain it. Lookups still running after {@code order.lookup.timeout-ms} are
+     * cancelled and fail their orders with a timeout.
+     */
+    public List<CompletableFuture<List<ProductDetailsDto>>> resolveEach(List<List<OrderItemDto>> orders) {
+        Map<String, CompletableFuture<ProductDetailsDto>> products = new HashMap<>();
+        Map<OrderItemDto, CompletableFuture<Void>> availabilities = new HashMap<>();
+
+        for (List<OrderItemDto> items : orders) {
+            for (OrderItemDto item : items) {
+                products.computeIfAbsent(item.productId(), productDetailsCache::get);
+                // OrderItemDto is a record, equal lines share one check
+                availabilities.computeIfAbsent(item,
+                        line -> CompletableFuture.runAsync(() -> requireAvailable(line.productId(), line.quantity()), lookupExecutor));
+            }
+        }
+
+        List<CompletableFuture<?>> calls = new ArrayList<>(products.values());
+        calls.addAll(availabilities.values());
+        try {
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).get(orderServiceConfig.getLookup().getTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // failed lines are reported per order below
+        } catch (TimeoutException ex) {
+            calls.forEach(call -> call.cancel(false));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            calls.forEach(call -> call.cancel(false));
+        }
+
+        List<CompletableFuture<List<ProductDetailsDto>>> resolved = new ArrayList<>(orders.size());
+        for (List<OrderItemDto> items : orders) {
+            try {
+                List<ProductDetailsDto> details = new ArrayList<>(items.size());
+                for (OrderItemDto item : items) {
+                    availabilities.get(item).join();
+                    details.add(products.get(item.productId()).join());
+                }
+                resolved.add(CompletableFuture.completedFuture(details));
+            } catch (CancellationException ex) {
+                resolved.add(CompletableFuture.failedFuture(new BusinessException(Constants.ORDER_LINE_LOOKUP_TIMEOUT, HttpStatus.GATEWAY_TIMEOUT)));
+            } catch (CompletionException ex) {
+                Throwable cause = unwrap(ex);
+                resolved.add(CompletableFuture.failedFuture(cause instanceof BusinessException
+                        ? cause
+                        : new BusinessException(Constants.ORDER_CREATION_FAILED, HttpStatus.INTERNAL_SERVER_ERROR)));
+            }
+        }
+        return resolved;
+    }
+
+    private void join(List<CompletableFuture<?>> calls) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        for (CompletableFuture<?> call : calls) {
+            call.whenComplete((result, ex) -> {
+                if (ex != null && !(ex instanceof CancellationException) && done.completeExceptionally(unwrap(ex))) {
+                    // a cancelled call that is still queued never runs
+                    calls.forEach(other -> other.cancel(false));
+                }
+            });
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).thenRun(() -> done.complete(null));
+
+        try {
+            done.get(orderServiceConfig.getLookup().getTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            Throwable cause = unwrap(ex);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BusinessException(Constants.ORDER_CREATION_FAILED, HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (TimeoutException ex) {
+            calls.forEach(call -> call.cancel(false));
+            throw new BusinessException(Constants.ORDER_LINE_LOOKUP_TIMEOUT, HttpStatus.GATEWAY_TIMEOUT);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            calls.forEach(call -> call.cancel(false));
+            throw new BusinessException(Constants.ORDER_CREATION_FAILED, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (unwrap(ex) instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ex;
+        }
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        while ((ex instanceof CompletionException || ex instanceof ExecutionException) && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        return ex;
+    }
+
+    private void requireAvailable(String productId, Long quantity) {
+        if (!checkAvailability(productId, quantity)) {
+            throw new BusinessException(Constants.PRODUCT_NOT_AVAILABLE, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private boolean checkAvailability(String productId, Long quantity) {
+        ApiResponse<ProductAvailability> response = inventoryClient.checkProductAvailability(productId, quantity);
+
+        if (response == null) {
+            throw new BusinessException(Constants.INVENTORY_SERVICE_NOT_AVAILABLE, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        if (response.getPayload() == null) {
+            log.error(String.valueOf(response));
+            throw new BusinessException(response.getMessage(), response.getHttpStatus());
+        }
+
+        return Boolean.TRUE.equals(response.getPayload().isAvailable());
+    }
+}
@@ -0,0 +1,111 @@
+package com.service.order.service;
+
+import com.service.order.exception.BusinessException;
+import com.service.order.repository.OrderRepository;
+import com.service.order.util.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out order numbers from blocks reserved in {@code order_number_seq}.
+ * <p>
+ * The sequence is incremented by the block size, so one {@code nextval} reserves a whole range
+ * for this node and ranges of different nodes never overlap. Numbers are taken from the current
+ * range with a CAS and the next range is fetched in the background once a quarter of the current
+ * one is left. Numbers of a range that is still unused when the node stops are skipped.
+ */
+@Component
+@Slf4j
+public class OrderNumberAllocator {
+
+    private final OrderRepository orderRepository;
+    private final ExecutorService refillExecutor;
+
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0));
+    private final AtomicReference<CompletableFuture<Block>> next = new AtomicReference<>();
+    private volatile long blockSize;
+
+    @Autowired
+    OrderNumberAllocator(OrderRepository orderRepository, @Qualifier("orderLookupExecutor") ExecutorService refillExecutor) {
+        this.orderRepository = orderRepository;
+        this.refillExecutor = refillExecutor;
+    }
+
+    public long next() {
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+
+            if (value < block.end) {
+                if (block.end - value <= blockSize / 4) {
+                    prefetch();
+                }
+                return value;
+            }
+
+            CompletableFuture<Block> pending = prefetch();
+            Block fresh;
+            try {
+                fresh = pending.join();
+            } catch (CompletionException ex) {
+                next.compareAndSet(pending, null);
+                log.error("Could not reserve a block of order numbers", ex.getCause());
+                throw new BusinessException(Constants.ORDER_CREATION_FAILED, HttpStatus.SERVICE_UNAVAILABLE);
+            }
+
+            // only one waiter installs the new block, the others retry against it
+            if (current.compareAndSet(block, fresh)) {
+                next.compareAndSet(pending, null);
+            }
+        }
+    }
+
+    private CompletableFuture<Block> prefetch() {
+        CompletableFuture<Block> pending = next.get();
+        if (pending != null) {
+            return pending;
+        }
+
+        CompletableFuture<Block> created = new CompletableFuture<>();
+        if (!next.compareAndSet(null, created)) {
+            return next.get() != null ? next.get() : prefetch();
+        }
+
+        refillExecutor.execute(() -> {
+            try {
+                created.complete(reserveBlock());
+            } catch (RuntimeException ex) {
+                created.completeExceptionally(ex);
+            }
+        });
+        return created;
+    }
+
+    private Block reserveBlock() {
+        if (blockSize == 0) {
+            // must match the increment of the sequence, otherwise ranges of different nodes overlap
+            blockSize = orderRepository.findOrderNumberSequenceIncrement();
+        }
+        long start = orderRepository.findNextValOfSequence();
+        return new Block(start, start + blockSize);
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
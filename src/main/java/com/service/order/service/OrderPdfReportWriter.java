@@ -0,0 +1,126 @@
+package com.service.order.service;
+
+import com.service.order.model.dto.OrderReportRow;
+import com.service.order.util.Constants;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Lays out the orders report over as many pages as needed, repeating the column header on every page.
+ * <p>
+ * Each page's content stream is closed as soon as the page is full. Together with a mixed
+ * {@link MemoryUsageSetting} this lets PDFBox move finished pages to its scratch file instead of heap.
+ */
+class OrderPdfReportWriter implements Closeable {
+
+    private static final float MARGIN = 36;
+    private static final float ROW_HEIGHT = 15;
+    private static final float FONT_SIZE = 10;
+    private static final float[] COLUMN_OFFSETS = {0, 60, 160, 240, 380, 460};
+    private static final String[] COLUMN_TITLES = {"Order ID", "Order Number", "Customer ID", "Order Date", "Status", "Total Amount"};
+
+    private final PDDocument document;
+    private PDPageContentStream contentStream;
+    private float positionY;
+    private int pageNumber;
+
+    OrderPdfReportWriter(MemoryUsageSetting memoryUsageSetting) {
+        this.document = new PDDocument(memoryUsageSetting);
+    }
+
+    void writeRow(OrderReportRow row) throws IOException {
+        if (contentStream == null || positionY < MARGIN + ROW_HEIGHT) {
+            newPage();
+        }
+
+        writeCells(PDType1Font.TIMES_ROMAN,
+                String.valueOf(row.id()),
+                row.orderNumber(),
+                Constants.parseToString(row.customerId()),
+                row.orderDate(),
+                Constants.parseToString(row.status()),
+                Constants.parseToString(row.totalAmount()));
+        positionY -= ROW_HEIGHT;
+    }
+
+    void save(OutputStream outputStream) throws IOException {
+        if (contentStream == null) {
+            newPage();
+        }
+        closePage();
+        document.save(outputStream);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closePage();
+        document.close();
+    }
+
+    private void newPage() throws IOException {
+        closePage();
+
+        PDPage page = new PDPage(PDRectangle.LETTER);
+        document.addPage(page);
+        contentStream = new PDPageContentStream(document, page);
+        pageNumber++;
+
+        float top = page.getMediaBox().getHeight() - MARGIN;
+
+        if (pageNumber == 1) {
+            contentStream.setFont(PDType1Font.HELVETICA_BOLD, 16);
+            contentStream.beginText();
+            contentStream.newLineAtOffset(MARGIN, top);
+            contentStream.showText("Orders Report");
+            contentStream.endText();
+            top -= 30;
+        }
+
+        // footer
+        contentStream.setFont(PDType1Font.HELVETICA, 8);
+        contentStream.beginText();
+        contentStream.newLineAtOffset(MARGIN, MARGIN / 2);
+        contentStream.showText("Page " + pageNumber);
+        contentStream.endText();
+
+        // header, repeated on every page
+        positionY = top;
+        writeCells(PDType1Font.HELVETICA_BOLD, COLUMN_TITLES);
+
+        contentStream.setLineWidth(1f);
+        contentStream.moveTo(MARGIN, positionY - 5);
+        contentStream.lineTo(page.getMediaBox().getWidth() - MARGIN, positionY - 5);
+        contentStream.stroke();
+
+        positionY -= ROW_HEIGHT + 5;
+    }
+
+    private void writeCells(PDType1Font font, String... cells) throws IOException {
+        contentStream.setFont(font, FONT_SIZE);
+        contentStream.beginText();
+        contentStream.newLineAtOffset(MARGIN, positionY);
+
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                contentStream.newLineAtOffset(COLUMN_OFFSETS[i] - COLUMN_OFFSETS[i - 1], 0);
+            }
+            contentStream.showText(cells[i] == null ? "" : cells[i]);
+        }
+        contentStream.endText();
+    }
+
+    private void closePage() throws IOException {
+        if (contentStream != null) {
+            contentStream.close();
+            contentStream = null;
+        }
+    }
+}
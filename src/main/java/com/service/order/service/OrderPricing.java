@@ -0,0 +1,400 @@
+package com.service.order.service;
+
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.model.dto.response.ProductDetailsDto;
+import com.service.order.model.enums.OrderSource;
+import com.service.order.model.enums.PaymentMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Prices an order: the sum of its lines (price times quantity), less the discount, plus tax on the
+ * discounted amount, plus shipping. The total is exact until it is rounded once to
+ * {@code order.pricing.scale} with {@code order.pricing.rounding-mode}.
+ * <p>
+ * Discount, tax and shipping cost default to {@code order.discount}, {@code order.tax} and
+ * {@code order.shipping-cost} and are overridden by the {@code order.pricing.rules} matching the
+ * order's source, payment method and subtotal. The rules are compiled into a table holding the
+ * resolved rates of every source, payment method and subtotal tier, the tiers being delimited by the
+ * rules' {@code min-subtotal}s, so pricing an order is a lookup whatever the number of rules. When
+ * {@code order.*} is rebound (e.g. by {@code POST /actuator/refresh}) the next order recompiles the
+ * table, there is nothing else to invalidate.
+ * <p>
+ * Prices are summed as longs in units of {@code 10^-price-scale} and the discount and tax factors
+ * are applied to the subtotal as scaled longs, so pricing an order allocates nothing but the
+ * resulting quote. An order whose prices have more decimals than {@code price-scale}, or whose
+ * amounts don't fit in a long at the combined scale, is priced with BigDecimal arithmetic instead,
+ * giving the same result.
+ */
+@Component
+@Slf4j
+public class OrderPricing {
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+    // prices are read through doubleValue(), which is exact below 10^15 units
+    private static final int MAX_PRICE_DIGITS = 15;
+    private static final double MAX_UNITS = 1e15;
+    private static final long NOT_FIXED_POINT = -1;
+
+    // the last slot of each dimension holds the orders without a source / payment method
+    private static final OrderSource[] SOURCES = OrderSource.values();
+    private static final PaymentMethod[] PAYMENT_METHODS = PaymentMethod.values();
+
+    private final OrderServiceConfig orderServiceConfig;
+    private volatile PricingTable table;
+
+    @Autowired
+    public OrderPricing(OrderServiceConfig orderServiceConfig) {
+        this.orderServiceConfig = orderServiceConfig;
+        this.table = new PricingTable(orderServiceConfig);
+    }
+
+    /**
+     * Rates and rounded total of an order whose line {@code i} has the price of
+     * {@code products.get(i)} and the quantity {@code quantities.applyAsLong(i)}.
+     */
+    public Quote price(OrderSource source, PaymentMethod paymentMethod, List<ProductDetailsDto> products, IntToLongFunction quantities) {
+        PricingTable current = table();
+        if (current.fixedPoint) {
+            try {
+                long subtotal = subtotal(products, quantities, current.priceScale);
+                if (subtotal != NOT_FIXED_POINT) {
+                    Rates rates = current.rates(source, paymentMethod, current.tier(subtotal));
+                    if (rates.fixedPoint) {
+                        return rates.quote(rates.total(subtotal));
+                    }
+                }
+            } catch (ArithmeticException ex) {
+                // overflow, rounding errors are thrown from exactPrice as well
+            }
+        }
+        return exactPrice(source, paymentMethod, products, quantities);
+    }
+
+    /**
+     * Reference BigDecimal implementation of {@link #price}.
+     */
+    public Quote exactPrice(OrderSource source, PaymentMethod paymentMethod, List<ProductDetailsDto> products, IntToLongFunction quantities) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < products.size(); i++) {
+            subtotal = subtotal.add(products.get(i).price().multiply(BigDecimal.valueOf(quantities.applyAsLong(i))));
+        }
+
+        PricingTable current = table();
+        Rates rates = current.rates(source, paymentMethod, current.tier(subtotal));
+        return rates.quote(rates.exactTotal(subtotal));
+    }
+
+    private PricingTable table() {
+        PricingTable current = table;
+        if (!current.compiledFrom(orderServiceConfig)) {
+            current = new PricingTable(orderServiceConfig);
+            table = current;
+        }
+        return current;
+    }
+
+    /**
+     * Sum of the lines in price units, or {@link #NOT_FIXED_POINT} when a price can't be read as units.
+     *
+     * @throws ArithmeticException if the sum overflows a long
+     */
+    private static long subtotal(List<ProductDetailsDto> products, IntToLongFunction quantities, int priceScale) {
+        long subtotal = 0;
+        for (int i = 0; i < products.size(); i++) {
+            long price = units(products.get(i).price(), priceScale);
+            if (price == NOT_FIXED_POINT) {
+                return NOT_FIXED_POINT;
+            }
+            subtotal = Math.addExact(subtotal, Math.multiplyExact(price, quantities.applyAsLong(i)));
+        }
+        return subtotal;
+    }
+
+    /**
+     * {@code price} in units of {@code 10^-priceScale}, or {@link #NOT_FIXED_POINT} when it has more
+     * decimals, is negative or too large to be read exactly.
+     */
+    private static long units(BigDecimal price, int priceScale) {
+        if (price.scale() > priceScale) {
+            return NOT_FIXED_POINT;
+        }
+        // doubleValue() of a small BigDecimal is one division, correctly rounded, and doesn't allocate;
+        // below 10^15 units the error stays far under half a unit, so rounding gives the exact value
+        double units = price.doubleValue() * POWERS_OF_TEN[priceScale];
+        if (!(units >= 0 && units < MAX_UNITS)) {
+            return NOT_FIXED_POINT;
+        }
+        return (long) (units + 0.5);
+    }
+
+    /**
+     * {@code n / d} for a positive {@code d}, rounded with {@code mode}.
+     */
+    static long divide(long n, long d, RoundingMode mode) {
+        long quotient = n / d;
+        long remainder = n % d;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        int sign = n < 0 ? -1 : 1;
+        boolean increment = switch (mode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                int half = Long.compare(Math.abs(remainder), d - Math.abs(remainder));
+                if (half != 0) {
+                    yield half > 0;
+                }
+                yield mode == RoundingMode.HALF_UP || (mode == RoundingMode.HALF_EVEN && (quotient & 1) != 0);
+            }
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return increment ? quotient + sign : quotient;
+    }
+
+    /**
+     * The rounded total of an order and the rates it was priced with, as stored on the order.
+     */
+    public record Quote(BigDecimal totalAmount, BigDecimal discount, BigDecimal tax, BigDecimal shippingCost) {
+    }
+
+    /**
+     * The pricing rules resolved for every source, payment method and subtotal tier. Tier {@code t}
+     * holds the subtotals from {@code floors[t - 1]} (inclusive) to {@code floors[t]}, tier 0 the ones
+     * below every floor, so a rule applies to a whole tier or not at all.
+     */
+    private static final class PricingTable {
+        private final BigDecimal discount;
+        private final BigDecimal tax;
+        private final BigDecimal shippingCost;
+        private final OrderServiceConfig.Pricing pricing;
+        private final int scale;
+        private final RoundingMode roundingMode;
+        private final int priceScale;
+        private final List<OrderServiceConfig.PricingRule> rules;
+
+        private final boolean fixedPoint;
+        private final BigDecimal[] floors;
+        // the floors in price units rounded up, a subtotal of whole units reaches the tier at the same point
+        private final long[] floorUnits;
+        private final int tiers;
+        private final Rates[] cells;
+
+        private PricingTable(OrderServiceConfig config) {
+            this.discount = config.getDiscount();
+            this.tax = config.getTax();
+            this.shippingCost = config.getShippingCost();
+            this.pricing = config.getPricing();
+            this.scale = pricing.getScale();
+            this.roundingMode = pricing.getRoundingMode();
+            this.priceScale = pricing.getPriceScale();
+            this.rules = pricing.getRules();
+
+            this.fixedPoint = priceScale >= 0 && priceScale <= MAX_PRICE_DIGITS;
+
+            TreeSet<BigDecimal> distinctFloors = new TreeSet<>();
+            for (OrderServiceConfig.PricingRule rule : rules) {
+                if (rule.getMinSubtotal() != null) {
+                    distinctFloors.add(rule.getMinSubtotal());
+                }
+            }
+            this.floors = distinctFloors.toArray(BigDecimal[]::new);
+            this.floorUnits = new long[floors.length];
+            if (fixedPoint) {
+                for (int i = 0; i < floors.length; i++) {
+                    BigInteger units = floors[i].setScale(priceScale, RoundingMode.CEILING).unscaledValue();
+                    floorUnits[i] = units.bitLength() < Long.SIZE ? units.longValue()
+                            : units.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+                }
+            }
+            this.tiers = floors.length + 1;
+
+            this.cells = new Rates[(SOURCES.length + 1) * (PAYMENT_METHODS.length + 1) * tiers];
+            Map<List<BigDecimal>, Rates> distinctRates = new HashMap<>();
+            for (int source = 0; source <= SOURCES.length; source++) {
+                for (int paymentMethod = 0; paymentMethod <= PAYMENT_METHODS.length; paymentMethod++) {
+                    for (int tier = 0; tier < tiers; tier++) {
+                        BigDecimal[] resolved = resolve(source < SOURCES.length ? SOURCES[source] : null,
+                                paymentMethod < PAYMENT_METHODS.length ? PAYMENT_METHODS[paymentMethod] : null,
+                                tier > 0 ? floors[tier - 1] : null);
+                        cells[index(source, paymentMethod, tier)] = distinctRates.computeIfAbsent(Arrays.asList(resolved),
+                                key -> new Rates(resolved[0], resolved[1], resolved[2], scale, roundingMode, priceScale));
+                    }
+                }
+            }
+
+            if (!rules.isEmpty()) {
+                log.info("Compiled {} pricing rules into {} subtotal tiers, {} distinct rates", rules.size(), tiers, distinctRates.size());
+            }
+        }
+
+        /**
+         * Discount, tax and shipping cost of the orders in a cell, {@code floor} being the lowest
+         * subtotal of its tier ({@code null} below every floor).
+         */
+        private BigDecimal[] resolve(OrderSource source, PaymentMethod paymentMethod, BigDecimal floor) {
+            BigDecimal[] resolved = {discount, tax, shippingCost};
+            for (OrderServiceConfig.PricingRule rule : rules) {
+                boolean applies = (rule.getSources().isEmpty() || (source != null && rule.getSources().contains(source)))
+                        && (rule.getPaymentMethods().isEmpty() || (paymentMethod != null && rule.getPaymentMethods().contains(paymentMethod)))
+                        && (rule.getMinSubtotal() == null || (floor != null && rule.getMinSubtotal().compareTo(floor) <= 0));
+                if (applies) {
+                    resolved[0] = Objects.requireNonNullElse(rule.getDiscount(), resolved[0]);
+                    resolved[1] = Objects.requireNonNullElse(rule.getTax(), resolved[1]);
+                    resolved[2] = Objects.requireNonNullElse(rule.getShippingCost(), resolved[2]);
+                }
+            }
+            return resolved;
+        }
+
+        private int index(int source, int paymentMethod, int tier) {
+            return (source * (PAYMENT_METHODS.length + 1) + paymentMethod) * tiers + tier;
+        }
+
+        Rates rates(OrderSource source, PaymentMethod paymentMethod, int tier) {
+            return cells[index(source != null ? source.ordinal() : SOURCES.length,
+                    paymentMethod != null ? paymentMethod.ordinal() : PAYMENT_METHODS.length, tier)];
+        }
+
+        // number of floors at or below the subtotal, a binary search over the few distinct min-subtotals
+        int tier(long subtotal) {
+            int low = 0;
+            int high = floorUnits.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (floorUnits[mid] <= subtotal) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int tier(BigDecimal subtotal) {
+            int low = 0;
+            int high = floors.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (floors[mid].compareTo(subtotal) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // the config binder replaces the values on a refresh, so identity tells whether they changed
+        boolean compiledFrom(OrderServiceConfig config) {
+            return discount == config.getDiscount()
+                    && tax == config.getTax()
+                    && shippingCost == config.getShippingCost()
+                    && pricing == config.getPricing()
+                    && scale == pricing.getScale()
+                    && roundingMode == pricing.getRoundingMode()
+                    && priceScale == pricing.getPriceScale()
+                    && rules == pricing.getRules();
+        }
+    }
+
+    /**
+     * One set of rates as scaled longs. With a subtotal {@code s} in price units the exact total is
+     * {@code (s * keep * taxed + shipping) / 10^totalScale}, where {@code keep} is
+     * {@code 1 - discount} and {@code taxed} is {@code 1 + tax}, both scaled to their own decimals.
+     */
+    private static final class Rates {
+        private final BigDecimal discount;
+        private final BigDecimal tax;
+        private final BigDecimal shippingCost;
+        private final int scale;
+        private final RoundingMode roundingMode;
+
+        private final boolean fixedPoint;
+        private final long keep;
+        private final long taxed;
+        private final long shipping;
+        private final int totalScale;
+
+        private Rates(BigDecimal discount, BigDecimal tax, BigDecimal shippingCost, int scale, RoundingMode roundingMode, int priceScale) {
+            this.discount = discount;
+            this.tax = tax;
+            this.shippingCost = shippingCost;
+            this.scale = scale;
+            this.roundingMode = roundingMode;
+
+            int discountScale = Math.max(0, discount.scale());
+            int taxScale = Math.max(0, tax.scale());
+            int shippingScale = Math.max(0, shippingCost.scale());
+            int combinedScale = priceScale + discountScale + taxScale;
+
+            long keep = 0;
+            long taxed = 0;
+            long shipping = 0;
+            boolean fixedPoint = priceScale >= 0 && priceScale <= MAX_PRICE_DIGITS
+                    && Math.max(combinedScale, scale) < POWERS_OF_TEN.length && shippingScale <= combinedScale;
+            if (fixedPoint) {
+                try {
+                    keep = BigDecimal.ONE.subtract(discount).setScale(discountScale).unscaledValue().longValueExact();
+                    taxed = BigDecimal.ONE.add(tax).setScale(taxScale).unscaledValue().longValueExact();
+                    shipping = shippingCost.setScale(combinedScale).unscaledValue().longValueExact();
+                } catch (ArithmeticException ex) {
+                    fixedPoint = false;
+                }
+            }
+            this.fixedPoint = fixedPoint;
+            this.keep = keep;
+            this.taxed = taxed;
+            this.shipping = shipping;
+            this.totalScale = combinedScale;
+        }
+
+        Quote quote(BigDecimal totalAmount) {
+            return new Quote(totalAmount, discount, tax, shippingCost);
+        }
+
+        /**
+         * @throws ArithmeticException if an intermediate amount overflows a long
+         */
+        BigDecimal total(long subtotal) {
+            long exact = Math.addExact(Math.multiplyExact(Math.multiplyExact(subtotal, keep), taxed), shipping);
+            if (totalScale >= scale) {
+                return BigDecimal.valueOf(divide(exact, POWERS_OF_TEN[totalScale - scale], roundingMode), scale);
+            }
+            return BigDecimal.valueOf(Math.multiplyExact(exact, POWERS_OF_TEN[scale - totalScale]), scale);
+        }
+
+        BigDecimal exactTotal(BigDecimal subtotal) {
+            //calc discount
+            BigDecimal totalAmount = subtotal.subtract(subtotal.multiply(discount));
+
+            //add tax amount
+            totalAmount = totalAmount.add(totalAmount.multiply(tax));
+
+            //add shipping cost
+            totalAmount = totalAmount.add(shippingCost);
+
+            return totalAmount.setScale(scale, roundingMode);
+        }
+    }
+}
@@ -1,60 +1,55 @@
 package com.service.order.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.service.order.client.InventoryClient;
 import com.service.order.client.ProductClient;
 import com.service.order.common.ApiResponse;
 import com.service.order.config.OrderServiceConfig;
+import com.service.order.event.OrderDeltaEvent;
+import com.service.order.event.OrderEventPublisher;
 import com.service.order.exception.BusinessException;
 import com.service.order.mapper.MapStructMapper;
+import com.service.order.metrics.OrderStages;
+import com.service.order.model.dto.CursorPaginatedResponse;
 import com.service.order.model.dto.OrderItemDto;
 import com.service.order.model.dto.PaginatedResponse;
 import com.service.order.model.dto.request.OrderRequestDto;
 import com.service.order.model.dto.request.UpdateOrderRequestDto;
+import com.service.order.model.dto.response.BatchOrderResponseDto;
+import com.service.order.model.dto.response.BatchOrderResultDto;
 import com.service.order.model.dto.response.OrderResponseDto;
-import com.service.order.model.dto.response.ProductAvailability;
-import com.service.order.model.dto.response.ProductResponseDto;
+import com.service.order.model.dto.response.ProductDetailsDto;
 import com.service.order.model.entity.OrderItem;
 import com.service.order.model.entity.Orders;
 import com.service.order.model.enums.OrderStatus;
+import com.service.order.repository.KeysetSortColumn;
 import com.service.order.repository.OrderItemRepository;
 import com.service.order.repository.OrderRepository;
 import com.service.order.util.Constants;
-import jakarta.servlet.http.HttpServletResponse;
+import com.service.order.util.PageCursor;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDFormContentStream;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.font.PDTrueTypeFont;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.HttpStatus;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.IOException;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -68,59 +63,164 @@ public class OrderService {
     private final ProductClient productClient;
     private final OrderServiceConfig orderServiceConfig;
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final InventoryClient inventoryClient;
-    private final ObjectMapper objectMapper;
-
-    @Value(value = "${redis.cache.ttl}")
-    private Long timeToLive;
+    private final OrderEventPublisher orderEventPublisher;
+    private final OrderCache orderCache;
+    private final OrderLineResolver orderLineResolver;
+    private final OrderNumberAllocator orderNumberAllocator;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderPricing orderPricing;
+    private final OrderStages orderStages;
 
     @Autowired
-    OrderService(OrderRepository orderRepository, MapStructMapper mapStructMapper, ProductClient productClient, OrderServiceConfig orderServiceConfig, KafkaTemplate<String, Object> kafkaTemplate, RedisTemplate<String, Object> redisTemplate, OrderItemRepository orderItemRepository, InventoryClient inventoryClient, ObjectMapper objectMapper) {
+    OrderService(OrderRepository orderRepository, MapStructMapper mapStructMapper, ProductClient productClient, OrderServiceConfig orderServiceConfig, OrderEventPublisher orderEventPublisher, OrderCache orderCache, OrderItemRepository orderItemRepository, OrderLineResolver orderLineResolver, OrderNumberAllocator orderNumberAllocator, Validator validator, PlatformTransactionManager transactionManager, OrderPricing orderPricing, OrderStages orderStages) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.mapStructMapper = mapStructMapper;
         this.productClient = productClient;
         this.orderServiceConfig = orderServiceConfig;
-        this.kafkaTemplate = kafkaTemplate;
-        this.redisTemplate = redisTemplate;
-        this.inventoryClient = inventoryClient;
-        this.objectMapper = objectMapper;
+        this.orderEventPublisher = orderEventPublisher;
+        this.orderCache = orderCache;
+        this.orderLineResolver = orderLineResolver;
+        this.orderNumberAllocator = orderNumberAllocator;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderPricing = orderPricing;
+        this.orderStages = orderStages;
+    }
+
+    public ApiResponse<ProductDetailsDto> getProduct(String id) {
+        return productClient.getProductById(id);
     }
 
-    private BigDecimal calculateTotalAmount(BigDecimal totalAmount) {
-        //calc discount
-        BigDecimal discountAmount = totalAmount.multiply(orderServiceConfig.getDiscount());
-        totalAmount = totalAmount.subtract(discountAmount);
+    @Transactional
+    public OrderResponseDto createOrder(OrderRequestDto requestDto) {
+        return orderStages.operation("createOrder", requestDto.orderItems().size(), () -> {
+
+            List<ProductDetailsDto> products = orderStages.stage("order-lines", () -> orderLineResolver.resolve(requestDto.orderItems()));
+            Orders order = buildOrder(requestDto, products);
+            Orders saved = orderStages.stage("persist", () -> orderRepository.save(order));
+            // flushed here rather than at commit so the insert time shows up as a stage
+            orderStages.stage("flush", orderRepository::flush);
 
-        //add tax amount
-        BigDecimal taxAmount = totalAmount.multiply(orderServiceConfig.getTax());
-        totalAmount = totalAmount.add(taxAmount);
+            OrderResponseDto responseDto = mapStructMapper.toOrderResponseDto(saved);
 
-        //add shipping cost
-        totalAmount = totalAmount.add(orderServiceConfig.getShippingCost());
+            orderStages.stage("cache-write", () -> orderCache.put(responseDto));
+            orderStages.stage("event-publish", () -> orderEventPublisher.publish(Constants.ORDER_CREATED_EVENT, saved.getId(), responseDto));
 
-        return totalAmount;
+            return responseDto;
+        });
     }
 
-    public ProductResponseDto getProduct(String id) {
-        return productClient.getProductById(id);
+    /**
+     * Creates many orders at once. Each order is validated and priced on its own and reported in the
+     * result at its request index; product and inventory lookups are shared by the whole batch.
+     * The orders that pass are inserted, with their created events, in one batched transaction.
+     */
+    public BatchOrderResponseDto createOrders(List<OrderRequestDto> requestDtos) {
+        return insertOrders(prepareOrders(requestDtos));
     }
 
-    @Transactional
-    public OrderResponseDto createOrder(OrderRequestDto requestDto) {
+    /**
+     * First half of {@link #createOrders}: validates, looks up and prices the orders without holding
+     * a transaction.
+     */
+    public PreparedOrders prepareOrders(List<OrderRequestDto> requestDtos) {
+        int maxSize = orderServiceConfig.getBatch().getMaxSize();
+        if (requestDtos == null || requestDtos.isEmpty() || requestDtos.size() > maxSize) {
+            throw new BusinessException(Constants.INVALID_BATCH_SIZE + maxSize, HttpStatus.BAD_REQUEST);
+        }
+
+        BatchOrderResultDto[] results = new BatchOrderResultDto[requestDtos.size()];
+
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < requestDtos.size(); i++) {
+            if (requestDtos.get(i) == null) {
+                results[i] = BatchOrderResultDto.failed(i, Constants.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+                continue;
+            }
+
+            Set<ConstraintViolation<OrderRequestDto>> violations = validator.validate(requestDtos.get(i));
+            if (!violations.isEmpty()) {
+                results[i] = BatchOrderResultDto.failed(i, violations.iterator().next().getMessage(), HttpStatus.BAD_REQUEST);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        List<CompletableFuture<List<ProductDetailsDto>>> lines = orderLineResolver.resolveEach(valid.stream()
+                .map(i -> requestDtos.get(i).orderItems())
+                .toList());
+
+        List<Integer> indexes = new ArrayList<>(valid.size());
+        List<Orders> orders = new ArrayList<>(valid.size());
+        for (int k = 0; k < valid.size(); k++) {
+            int index = valid.get(k);
+            try {
+                orders.add(buildOrder(requestDtos.get(index), lines.get(k).join()));
+                indexes.add(index);
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof BusinessException cause) {
+                    results[index] = BatchOrderResultDto.failed(index, cause.getMessage(), cause.getHttpStatus());
+                } else {
+                    log.error("Failed to prepare order {} of a batch", index, ex.getCause());
+                    results[index] = BatchOrderResultDto.failed(index, Constants.ORDER_CREATION_FAILED, HttpStatus.INTERNAL_SERVER_ERROR);
+                }
+            } catch (BusinessException ex) {
+                results[index] = BatchOrderResultDto.failed(index, ex.getMessage(), ex.getHttpStatus());
+            }
+        }
+
+        return new PreparedOrders(results, indexes, orders);
+    }
+
+    /**
+     * Second half of {@link #createOrders}: inserts the prepared orders, with their created events,
+     * in one transaction, the caller's if there is one.
+     */
+    public BatchOrderResponseDto insertOrders(PreparedOrders prepared) {
+        BatchOrderResultDto[] results = prepared.results();
+        List<Integer> indexes = prepared.indexes();
+        List<Orders> orders = prepared.orders();
+
+        if (!orders.isEmpty()) {
+            try {
+                List<OrderResponseDto> created = transactionTemplate.execute(status -> {
+                    List<OrderResponseDto> responseDtos = orderRepository.saveAll(orders).stream()
+                            .map(mapStructMapper::toOrderResponseDto)
+                            .toList();
+                    responseDtos.forEach(responseDto -> orderEventPublisher.publish(Constants.ORDER_CREATED_EVENT, responseDto.id(), responseDto));
+                    return responseDtos;
+                });
+                for (int k = 0; k < indexes.size(); k++) {
+                    results[indexes.get(k)] = BatchOrderResultDto.created(indexes.get(k), created.get(k));
+                }
+            } catch (DataAccessException ex) {
+                log.error("Failed to insert a batch of {} orders", orders.size(), ex);
+                indexes.forEach(index -> results[index] = BatchOrderResultDto.failed(index, Constants.ORDER_CREATION_FAILED, HttpStatus.INTERNAL_SERVER_ERROR));
+            }
+        }
+
+        int created = (int) Arrays.stream(results).filter(result -> result.order() != null).count();
+        return new BatchOrderResponseDto(created, results.length - created, Arrays.asList(results));
+    }
+
+    /**
+     * Orders of a batch ready to be inserted, {@code results} already holds the ones that failed
+     * and {@code indexes} the request index of each of {@code orders}.
+     */
+    public record PreparedOrders(BatchOrderResultDto[] results, List<Integer> indexes, List<Orders> orders) {
+    }
+
+    private Orders buildOrder(OrderRequestDto requestDto, List<ProductDetailsDto> products) {
 
         Orders order = Orders.builder()
-                .orderNumber("ORD" + orderRepository.findNextValOfSequence())
+                .orderNumber("ORD" + orderStages.stage("order-number", orderNumberAllocator::next))
                 .customerId(requestDto.customerId())
                 .orderDate((LocalDateTime.now()).toString())
                 .status(OrderStatus.PENDING)
                 .shippingAddress(requestDto.shippingAddress())
                 .paymentMethod(requestDto.paymentMethod())
-                .shippingCost(orderServiceConfig.getShippingCost())
-                .discount(orderServiceConfig.getDiscount())
-                .taxAmount(orderServiceConfig.getTax())
                 .orderSource(requestDto.orderSource())
                 .notes(requestDto.notes())
                 .build();
@@ -128,24 +228,9 @@ public class OrderService {
 
         List<OrderItem> orderItems = new ArrayList<>();
 
-        BigDecimal totalAmount = BigDecimal.ZERO;
-
-        for (OrderItemDto item : requestDto.orderItems()) {
-
-            ProductResponseDto responseDto = productClient.getProductById(item.productId());
+        for (int i = 0; i < requestDto.orderItems().size(); i++) {
 
-            if (responseDto == null || responseDto.payload() == null) {
-                throw new BusinessException(responseDto.message(), responseDto.httpStatus());
-            }
-
-            if (!checkAvailability(item.productId(), item.quantity())) {
-                throw new BusinessException(Constants.PRODUCT_NOT_AVAILABLE, HttpStatus.BAD_REQUEST);
-            }
-
-            BigDecimal productPrice = responseDto.payload().price();
-
-            productPrice = productPrice.multiply(BigDecimal.valueOf(item.quantity()));
-            totalAmount = totalAmount.add(productPrice);
+            OrderItemDto item = requestDto.orderItems().get(i);
 
             orderItems.add(OrderItem.builder()
                     .order(order)
@@ -155,33 +240,72 @@ public class OrderService {
 
         }
         order.setOrderItems(orderItems);
-        order.setTotalAmount(calculateTotalAmount(totalAmount));
-        order = orderRepository.save(order);
+        applyQuote(order, orderPricing.price(requestDto.orderSource(), requestDto.paymentMethod(), products, i -> requestDto.orderItems().get(i).quantity()));
 
-        OrderResponseDto responseDto = mapStructMapper.toOrderResponseDto(order);
+        return order;
+    }
 
-        redisTemplate.opsForValue().set(Constants.ORDER_CACHE_KEY_PREFIX + order.getId(), responseDto, timeToLive, TimeUnit.MINUTES);
-        kafkaTemplate.send(Constants.ORDER_CREATED_EVENT, responseDto);
+    private static void applyQuote(Orders order, OrderPricing.Quote quote) {
+        order.setTotalAmount(quote.totalAmount());
+        order.setDiscount(quote.discount());
+        order.setTaxAmount(quote.tax());
+        order.setShippingCost(quote.shippingCost());
+    }
 
-        return responseDto;
+    /**
+     * Maps a page of orders to DTOs, loading the items of the whole page with one query instead of
+     * one lazy load per order. With {@code withItems} false the items aren't loaded at all.
+     */
+    private List<OrderResponseDto> toOrderResponseDtos(List<Orders> orders, boolean withItems) {
+        if (!withItems || orders.isEmpty()) {
+            return orders.stream()
+                    .map(order -> mapStructMapper.toOrderResponseDto(order, null))
+                    .toList();
+        }
+
+        Map<Long, List<OrderItemDto>> itemsByOrderId = orderItemRepository.findByOrderIdIn(orders.stream().map(Orders::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getOrder().getId(),
+                        Collectors.mapping(mapStructMapper::toOrderItemDto, Collectors.toList())));
+
+        return orders.stream()
+                .map(order -> mapStructMapper.toOrderResponseDto(order, itemsByOrderId.getOrDefault(order.getId(), List.of())))
+                .toList();
+    }
+
+    private static boolean includesItems(String[] fields) {
+        return fields == null || Arrays.asList(fields).contains("orderItems");
+    }
+
+    // a sortBy without its own sortOrder is sorted ascending
+    private static Sort.Direction direction(String[] sortOrder, int i) {
+        return i < sortOrder.length && sortOrder[i].equals("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
     }
 
-    public PaginatedResponse<OrderResponseDto> getOrders(int page, int size, String[] sortBy, String[] sortOrder) {
-        Sort sort = Sort.by(sortOrder[0].equals("desc") ? Sort.Direction.DESC : Sort.Direction.ASC, sortBy[0]);
+    public PaginatedResponse<OrderResponseDto> getOrders(int page, int size, String[] sortBy, String[] sortOrder, String[] fields) {
+        Sort sort = Sort.by(direction(sortOrder, 0), sortBy[0]);
 
         for (int i = 1; i < sortBy.length; i++) {
 
-            sort.and(Sort.by(sortOrder[i].equals("desc") ? Sort.Direction.DESC : Sort.Direction.ASC, sortBy[i]));
+            sort = sort.and(Sort.by(direction(sortOrder, i), sortBy[i]));
         }
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
+        if (orderServiceConfig.getCache().isPageAssembly() && includesItems(fields)) {
+            // only the ids come from the database, the orders themselves from the cache
+            Page<Long> idsPage = orderRepository.findIds(pageable);
+
+            return new PaginatedResponse<>(orderCache.getAll(idsPage.getContent(), ids -> toOrderResponseDtos(orderRepository.findAllById(ids), true)),
+                    idsPage.getNumber(),
+                    idsPage.getSize(),
+                    idsPage.getTotalElements(),
+                    idsPage.getTotalPages());
+        }
+
         Page<Orders> ordersPage = orderRepository.findAll(pageable);
 
-        List<OrderResponseDto> orderResponseDtoList = ordersPage
-                .stream()
-                .map(order -> mapStructMapper.toOrderResponseDto(order))
-                .toList();
+        List<OrderResponseDto> orderResponseDtoList = toOrderResponseDtos(ordersPage.getContent(), includesItems(fields));
 
         return new PaginatedResponse<>(orderResponseDtoList,
                 ordersPage.getNumber(),
@@ -191,27 +315,61 @@ public class OrderService {
 
     }
 
-    public OrderResponseDto getOrderById(Long id) {
+    public CursorPaginatedResponse<OrderResponseDto> getOrdersAfter(String cursor, int size, String sortBy, String sortOrder, boolean withCount, String[] fields) {
+        if (size < 1) {
+            throw new BusinessException(Constants.INVALID_INPUT, HttpStatus.BAD_REQUEST);
+        }
 
-        Orders order = getOrder(id);
+        PageCursor pageCursor = cursor != null && !cursor.isBlank()
+                ? PageCursor.decode(cursor)
+                : new PageCursor(sortBy, sortOrder.equals("desc"), null, null);
 
-        return mapStructMapper.toOrderResponseDto(order);
-    }
+        KeysetSortColumn sortColumn = KeysetSortColumn.fromProperty(pageCursor.sortBy())
+                .orElseThrow(() -> new BusinessException(Constants.INVALID_SORT_FIELD + pageCursor.sortBy(), HttpStatus.BAD_REQUEST));
 
-    private Orders getOrder(Long id) {
+        Object lastKey = pageCursor.lastId() != null ? lastKey(sortColumn, pageCursor) : null;
 
-        String cacheKey = Constants.ORDER_CACHE_KEY_PREFIX + id;
-        OrderResponseDto orderResponseDto = (OrderResponseDto) redisTemplate.opsForValue().get(cacheKey);
+        // one extra row tells whether there is a next page without counting
+        List<Orders> orders = orderRepository.findPageAfter(sortColumn, pageCursor.descending(), lastKey, pageCursor.lastId(), size + 1);
 
-        if (orderResponseDto != null) {
-            return mapStructMapper.toOrder(orderResponseDto);
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = orders.subList(0, size);
+            Orders last = orders.get(size - 1);
+            nextCursor = new PageCursor(sortColumn.getProperty(), pageCursor.descending(), sortColumn.keyOf(last), last.getId()).encode();
         }
 
-        Orders order = orderRepository.findById(id).orElseThrow(() -> new BusinessException(Constants.ORDER_NOT_FOUND, HttpStatus.NOT_FOUND));
+        List<OrderResponseDto> orderResponseDtoList = toOrderResponseDtos(orders, includesItems(fields));
 
-        redisTemplate.opsForValue().set(cacheKey, mapStructMapper.toOrderRequestDto(order), timeToLive, TimeUnit.MINUTES);
+        return new CursorPaginatedResponse<>(orderResponseDtoList,
+                size,
+                nextCursor,
+                withCount ? orderRepository.count() : null);
+    }
 
-        return order;
+    // the key of a cursor is client input, it has to be a value of the column the cursor sorts by
+    private static Object lastKey(KeysetSortColumn sortColumn, PageCursor pageCursor) {
+        try {
+            return sortColumn.parseKey(pageCursor.lastKey());
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException(Constants.INVALID_CURSOR, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public OrderResponseDto getOrderById(Long id) {
+        return orderStages.operation("getOrder", 0, () -> {
+
+            OrderResponseDto responseDto = orderStages.stage("cache-lookup",
+                    () -> orderCache.get(id, orderId -> orderStages.stage("db-load", () -> mapStructMapper.toOrderResponseDto(getOrder(orderId)))));
+            orderStages.lines(responseDto.orderItems() == null ? 0 : responseDto.orderItems().size());
+
+            return responseDto;
+        });
+    }
+
+    private Orders getOrder(Long id) {
+
+        return orderRepository.findById(id).orElseThrow(() -> new BusinessException(Constants.ORDER_NOT_FOUND, HttpStatus.NOT_FOUND));
     }
 
     private void validateUpdateOrder(UpdateOrderRequestDto requestDto, Orders order) {
@@ -241,11 +399,18 @@ public class OrderService {
 
     @Transactional
     public OrderResponseDto updateOrder(Long id, UpdateOrderRequestDto requestDto) {
+        return orderStages.operation("updateOrder", requestDto.orderItems().size(), () -> applyUpdate(id, requestDto));
+    }
 
-        Orders order = getOrder(id);
+    private OrderResponseDto applyUpdate(Long id, UpdateOrderRequestDto requestDto) {
+
+        // read the current row, not the cache, so the version and the delta are computed against committed state
+        Orders order = orderStages.stage("load", () -> getOrder(id));
 
         validateUpdateOrder(requestDto, order);
 
+        OrderResponseDto previous = mapStructMapper.toOrderResponseDto(order);
+
         if (requestDto.status() != null) {
             order.setStatus(requestDto.status());
         }
@@ -258,25 +423,16 @@ public class OrderService {
 
             Map<String, OrderItem> existingItems = order.getOrderItems().stream().collect(Collectors.toMap(OrderItem::getProductId, Function.identity()));
 
-            BigDecimal totalAmount = BigDecimal.ZERO;
-
             List<OrderItem> updatedItems = new ArrayList<>();
 
-            for (OrderItem item : requestDto.orderItems()) {
-
-                ProductResponseDto productResponseDto = productClient.getProductById(item.getProductId());
-
-                if (productResponseDto == null || productResponseDto.payload() == null) {
-                    throw new BusinessException(productResponseDto.message(), productResponseDto.httpStatus());
-                }
-
-                if (!checkAvailability(item.getProductId(), item.getQuantity())) {
-                    throw new BusinessException(Constants.PRODUCT_NOT_AVAILABLE, HttpStatus.BAD_REQUEST);
-                }
+            List<ProductDetailsDto> products = orderStages.stage("order-lines", () -> orderLineResolver.resolve(requestDto.orderItems()
+                    .stream()
+                    .map(item -> new OrderItemDto(item.getProductId(), item.getQuantity()))
+                    .toList()));
 
-                BigDecimal total = productResponseDto.payload().price().multiply(BigDecimal.valueOf(item.getQuantity()));
-                totalAmount = totalAmount.add(total);
+            for (int i = 0; i < requestDto.orderItems().size(); i++) {
 
+                OrderItem item = requestDto.orderItems().get(i);
 
                 if (existingItems.containsKey(item.getProductId())) {
 
@@ -306,34 +462,36 @@ public class OrderService {
                                     .equals(existingItem.getProductId())))
                     .toList();
 
-            totalAmount = calculateTotalAmount(totalAmount);
-
             order.setOrderItems(updatedItems);
-            order.setTotalAmount(totalAmount);
+            applyQuote(order, orderPricing.price(order.getOrderSource(), order.getPaymentMethod(), products, i -> requestDto.orderItems().get(i).getQuantity()));
 
-            orderItemRepository.saveAll(updatedItems);
-            orderItemRepository.deleteAll(toBeRemoved);
+            orderStages.stage("persist", () -> {
+                orderItemRepository.saveAll(updatedItems);
+                orderItemRepository.deleteAll(toBeRemoved);
+            });
         }
 
         if (requestDto.notes() != null) {
             order.setNotes(requestDto.notes());
         }
 
-        order = orderRepository.save(order);
+        Orders saved = orderStages.stage("persist", () -> orderRepository.save(order));
+        // the flush checks and bumps the version (the items list is always replaced, so the order is
+        // dirty), the delta is then built against the new version
+        orderStages.stage("flush", orderRepository::flush);
 
-        OrderResponseDto responseDto = mapStructMapper.toOrderResponseDto(order);
+        OrderResponseDto responseDto = mapStructMapper.toOrderResponseDto(saved);
+        OrderDeltaEvent delta = OrderDeltaEvent.between(previous, responseDto);
 
-        if (order.getStatus().equals(OrderStatus.CANCELED)) {
-            kafkaTemplate.send(Constants.ORDER_CANCELED_EVENT, responseDto);
-        } else {
-            kafkaTemplate.send(Constants.ORDER_UPDATED, responseDto);
-        }
+        String topic = saved.getStatus().equals(OrderStatus.CANCELED) ? Constants.ORDER_CANCELED_EVENT : Constants.ORDER_UPDATED_EVENT;
+        orderStages.stage("event-publish", () -> orderEventPublisher.publish(topic, saved.getId(), delta));
 
-        redisTemplate.delete(Constants.ORDER_CACHE_KEY_PREFIX + id);
+        orderStages.stage("cache-evict", () -> orderCache.evict(id));
 
         return responseDto;
     }
 
+    @Transactional
     public OrderResponseDto deleteOrder(Long id) {
 
         Orders order = getOrder(id);
@@ -342,121 +500,11 @@ public class OrderService {
 
         OrderResponseDto responseDto = mapStructMapper.toOrderResponseDto(order);
 
-        kafkaTemplate.send(Constants.ORDER_DELETED, responseDto);
-        redisTemplate.delete(Constants.ORDER_CACHE_KEY_PREFIX + id);
+        orderEventPublisher.publish(Constants.ORDER_DELETED_EVENT, id, responseDto);
+        orderCache.evict(id);
 
         return responseDto;
     }
 
-    private Boolean checkAvailability(String productId, Long quantity) {
-        try {
-
-            ApiResponse response = inventoryClient.checkProductAvailability(productId, quantity);
-
-            if (response == null || response.getPayload() == null) {
-                logger.error(String.valueOf(response));
-                throw new BusinessException(response.getMessage(), response.getHttpStatus());
-            }
-
-            String json = objectMapper.writeValueAsString(response.getPayload());
-            ProductAvailability productAvailability = objectMapper.readValue(json, ProductAvailability.class);
-
-            return productAvailability.isAvailable();
-
-        } catch (JsonProcessingException ex) {
-            logger.error("Error processing JSON response for productId: {} with quantity: {}. Exception: {}", productId, quantity, ex.getMessage(), ex);
-            return false;
-        }
-    }
-
-    public void exportOrdersReportInExcel(HttpServletResponse response) throws IOException {
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        response.setHeader("Content-Disposition", "attachment; filename=orders.xlsx");
-
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("ordersSheet");
-
-        sheet.setColumnWidth(0, 20 * 256);
-        sheet.setColumnWidth(1, 20 * 256);
-        sheet.setColumnWidth(2, 20 * 256);
-        sheet.setColumnWidth(3, 30 * 256);
-        sheet.setColumnWidth(4, 20 * 256);
-        sheet.setColumnWidth(5, 20 * 256);
-
-        List<Orders> ordersList = orderRepository.findAll();
-
-        Row header = sheet.createRow(0);
-        header.createCell(0).setCellValue("order id");
-        header.createCell(1).setCellValue("order number");
-        header.createCell(2).setCellValue("customer id");
-        header.createCell(3).setCellValue("order date");
-        header.createCell(4).setCellValue("order status");
-        header.createCell(5).setCellValue("total amount");
-
-        Integer rowNumber = 1;
-
-        for (Orders orders : ordersList) {
-            Row row = sheet.createRow(rowNumber++);
-            row.createCell(0).setCellValue(orders.getId());
-            row.createCell(1).setCellValue(orders.getOrderNumber());
-            row.createCell(2).setCellValue(orders.getCustomerId());
-            row.createCell(3).setCellValue(orders.getOrderDate());
-            row.createCell(4).setCellValue(orders.getStatus().toString());
-            row.createCell(5).setCellValue(Constants.parseToString(orders.getTotalAmount()));
-        }
-        workbook.write(response.getOutputStream());
-    }
-
-    public void exportOrdersReportInPdf(HttpServletResponse response) throws IOException {
-        response.setContentType("application/pdf");
-        response.setHeader("Content-Disposition", "attachment; filename=orders.pdf");
-
-        PDDocument document = new PDDocument();
-        PDPage page = new PDPage();
-        document.addPage(page);
-        PDPageContentStream contentStream = new PDPageContentStream(document, page);
-
-        // Title
-        contentStream.setFont(PDType1Font.HELVETICA_BOLD, 16);
-        contentStream.beginText();
-        contentStream.newLineAtOffset(200, 750); // Centered title
-        contentStream.showText("Orders Report");
-        contentStream.endText();
-
-        // Header
-        contentStream.setFont(PDType1Font.HELVETICA_BOLD, 12);
-        contentStream.beginText();
-        contentStream.newLineAtOffset(100, 720); // Adjust Y position for header
-        contentStream.showText("Order ID");
-        contentStream.newLineAtOffset(120, 0);
-        contentStream.showText("Order Number");
-        contentStream.endText();
-
-        // Underline header
-        contentStream.setLineWidth(1f);
-        contentStream.moveTo(100, 715); // Adjust Y position for line
-        contentStream.lineTo(400, 715); // Adjust X position for line
-        contentStream.stroke();
-
-        // Data
-        contentStream.setFont(PDType1Font.TIMES_ROMAN, 12);
-        List<Orders> ordersList = orderRepository.findAll();
-        Integer positionY = 700;
-
-        for (Orders orders : ordersList) {
-            contentStream.beginText();
-            contentStream.newLineAtOffset(100, positionY);
-            contentStream.showText(String.valueOf(orders.getId()));
-            contentStream.newLineAtOffset(120, 0);
-            contentStream.showText(orders.getOrderNumber());
-            contentStream.endText();
-            positionY -= 15; // Move down for the next line
-        }
-
-        contentStream.close();
-        document.save(response.getOutputStream());
-        document.close();
-    }
-
 
 }
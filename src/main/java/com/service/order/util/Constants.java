@@ -9,6 +9,8 @@ public class Constants {
     public static final String ORDER_UPDATED = "Order updated successfully.";
     public static final String ORDER_DELETED = "Order deleted successfully.";
     public static final String ORDER_RETRIEVED = "Order retrieved successfully.";
+    public static final String ORDER_BATCH_PROCESSED = "Order batch processed.";
+    public static final String ORDER_ACCEPTED = "Order accepted for processing.";
     public static final String ORDER_CACHE_KEY_PREFIX = "order:";
 
 
@@ -17,15 +19,26 @@ public class Constants {
     public static final String PRODUCT_SERVICE_NOT_AVAILABLE = "Product Service Not available.";
     public static final String INVENTORY_SERVICE_NOT_AVAILABLE = "Inventory Service Not available.";
     public static final String PRODUCT_NOT_AVAILABLE = "Product not available";
+    public static final String PRODUCT_NOT_FOUND = "Product not found: ";
     public static final String ORDER_NOT_FOUND = "Order not found.";
     public static final String INVALID_INPUT = "Invalid input. Please check your request.";
     public static final String INVALID_ORDER_ID = "Invalid order ID provided.";
     public static final String ORDER_CREATION_FAILED = "Failed to create order.";
+    public static final String ORDER_UPDATE_CONFLICT = "The order was changed by another request, reload it and retry.";
     public static final String ORDER_STATUS_SHIPPED_UPDATE_ERROR = "Cannot update order with status 'SHIPPED'";
     public static final String INVALID_PAYMENT_METHOD = "Invalid payment method: ";
     public static final String INVALID_ORDER_STATUS = "Invalid order status: ";
     public static final String INVALID_ORDER_SOURCE = "Invalid order source: ";
     public static final String EMPTY_ORDER_LIST = "Order list can't be empty.";
+    public static final String INVALID_CURSOR = "Invalid page cursor.";
+    public static final String INVALID_SORT_FIELD = "Orders can't be paged by: ";
+    public static final String EVENT_SERIALIZATION_FAILED = "Failed to serialize the order event.";
+    public static final String ORDER_LINE_LOOKUP_TIMEOUT = "Timed out while checking the order items.";
+    public static final String INVALID_BATCH_SIZE = "The number of orders in a batch must be between 1 and ";
+    // hard cap of POST /api/orders/batch, order.batch.max-size can only lower it
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final String ORDER_INTAKE_NOT_FOUND = "No order was submitted with this tracking id.";
+    public static final String ORDER_INTAKE_FULL = "Too many orders are waiting to be processed, retry later.";
 
 
     // Kafka Topics
@@ -0,0 +1,41 @@
+package com.service.order.util;
+
+import com.service.order.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token of a keyset-paginated listing: the sort of the listing plus the sort
+ * key and id of the last row returned. The key is kept as text, it is checked against the sort
+ * column once that is resolved.
+ */
+public record PageCursor(
+        String sortBy,
+        boolean descending,
+        String lastKey,
+        Long lastId
+) {
+
+    private static final char SEPARATOR = '\n';
+
+    public String encode() {
+        String raw = sortBy + SEPARATOR + (descending ? "desc" : "asc") + SEPARATOR + lastId + SEPARATOR + lastKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // the key goes last so it may contain anything
+            String[] parts = raw.split(String.valueOf(SEPARATOR), 4);
+            if (!parts[1].equals("asc") && !parts[1].equals("desc")) {
+                throw new IllegalArgumentException("Unknown sort order: " + parts[1]);
+            }
+            return new PageCursor(parts[0], parts[1].equals("desc"), parts[3], Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new BusinessException(Constants.INVALID_CURSOR, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- outbox ids are drawn when the event is written instead of in pooled blocks per node, so the events
+-- of one order, whose writes are serialized by its version, get increasing ids on every node
+alter sequence order_outbox_seq increment by 1;
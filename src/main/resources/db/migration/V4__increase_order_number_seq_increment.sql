@@ -0,0 +1,3 @@
+-- every nextval reserves a block of 50 order numbers for the calling node
+alter sequence order_number_seq
+    increment by 50
@@ -0,0 +1,14 @@
+-- ids come from sequences incremented by 50 so Hibernate can allocate them in memory and batch the inserts
+create sequence orders_seq increment by 50;
+select setval('orders_seq', coalesce((select max(id) from orders), 0) + 51, false);
+
+alter table orders alter column id drop identity if exists;
+alter table orders alter column id set default nextval('orders_seq');
+alter sequence orders_seq owned by orders.id;
+
+create sequence order_items_seq increment by 50;
+select setval('order_items_seq', coalesce((select max(id) from order_items), 0) + 51, false);
+
+alter table order_items alter column id drop identity if exists;
+alter table order_items alter column id set default nextval('order_items_seq');
+alter sequence order_items_seq owned by order_items.id;
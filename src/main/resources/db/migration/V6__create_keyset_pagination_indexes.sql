@@ -0,0 +1,5 @@
+-- back the (sort key, id) seeks of the keyset-paginated order listing
+create index idx_orders_order_date_id on orders (order_date, id);
+create index idx_orders_customer_id_id on orders (customer_id, id);
+create index idx_orders_total_amount_id on orders (total_amount, id);
+create index idx_orders_status_id on orders (status, id);
@@ -0,0 +1,12 @@
+create sequence order_outbox_seq increment by 50;
+
+CREATE TABLE order_outbox (
+    id BIGINT PRIMARY KEY DEFAULT nextval('order_outbox_seq'),
+    aggregate_id BIGINT NOT NULL,
+    topic VARCHAR(255) NOT NULL,
+    payload_type VARCHAR(255) NOT NULL,
+    payload BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+alter sequence order_outbox_seq owned by order_outbox.id;
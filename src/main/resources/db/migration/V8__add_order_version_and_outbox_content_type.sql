@@ -0,0 +1,4 @@
+-- incremented by every update, lets consumers of delta events apply them in order
+alter table orders add column version BIGINT NOT NULL DEFAULT 0;
+
+alter table order_outbox add column content_type VARCHAR(64) NOT NULL DEFAULT 'application/json';
@@ -0,0 +1,15 @@
+CREATE TABLE order_intake (
+    tracking_id UUID PRIMARY KEY,
+    payload BYTEA NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    order_id BIGINT,
+    error VARCHAR(1024),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    updated_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- the workers only ever look for pending requests that are due
+CREATE INDEX order_intake_pending_idx ON order_intake (next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX order_intake_updated_at_idx ON order_intake (updated_at) WHERE status <> 'PENDING';
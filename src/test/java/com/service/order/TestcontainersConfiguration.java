@@ -1,8 +1,37 @@
 package com.service.order;
 
 import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
 
 @TestConfiguration(proxyBeanMethods = false)
-class TestcontainersConfiguration {
+public class TestcontainersConfiguration {
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer<?> postgresContainer() {
+        return new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+    }
+
+    // KafkaConfig and RedisConfig read their own properties rather than Boot's connection details
+    @Bean
+    KafkaContainer kafkaContainer(DynamicPropertyRegistry properties) {
+        KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.6.1"));
+        properties.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+        return kafka;
+    }
+
+    @Bean
+    GenericContainer<?> redisContainer(DynamicPropertyRegistry properties) {
+        GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+        properties.add("spring.redis.host", redis::getHost);
+        properties.add("spring.redis.port", () -> redis.getMappedPort(6379));
+        return redis;
+    }
 
 }
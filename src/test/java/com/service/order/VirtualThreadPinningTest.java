@@ -0,0 +1,76 @@
+package com.service.order;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A virtual thread that blocks inside a {@code synchronized} block or method stays pinned to its
+ * carrier thread, so with {@code spring.threads.virtual.enabled} a few slow calls could stall the
+ * whole service. Locks in this code base must be {@link java.util.concurrent.locks.ReentrantLock}s;
+ * this test fails on any monitor in the compiled classes.
+ */
+class VirtualThreadPinningTest {
+
+    @Test
+    void noClassUsesMonitors() throws IOException, URISyntaxException {
+        Path classes = Path.of(OrderServiceApplication.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        List<String> monitors = new ArrayList<>();
+
+        try (Stream<Path> files = Files.walk(classes)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".class")).toList()) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    new ClassReader(in).accept(new MonitorFinder(monitors), ClassReader.SKIP_DEBUG);
+                }
+            }
+        }
+
+        assertThat(monitors).isEmpty();
+    }
+
+    private static class MonitorFinder extends ClassVisitor {
+
+        private final List<String> monitors;
+        private String className;
+
+        MonitorFinder(List<String> monitors) {
+            super(Opcodes.ASM9);
+            this.monitors = monitors;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.className = name.replace('/', '.');
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            String method = className + "." + name + descriptor;
+            if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+                monitors.add("synchronized method " + method);
+            }
+
+            return new MethodVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitInsn(int opcode) {
+                    if (opcode == Opcodes.MONITORENTER) {
+                        monitors.add("synchronized block in " + method);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.service.order.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.order.common.ApiResponse;
+import com.service.order.model.dto.response.ProductAvailability;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning an inventory-service availability response into a {@link ProductAvailability}:
+ * the raw {@code ApiResponse} decode followed by the payload's JSON round trip that
+ * checkAvailability used to do, against decoding straight into {@code ApiResponse<ProductAvailability>}
+ * the way the typed Feign client does now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityDecodeBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JavaType typedResponse;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        typedResponse = objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, ProductAvailability.class);
+        body = "{\"payload\":{\"isAvailable\":true,\"quantity\":42},\"message\":\"Product is available\",\"httpStatus\":\"OK\"}"
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ProductAvailability rawWithRoundTrip() throws IOException {
+        ApiResponse<?> response = objectMapper.readValue(body, ApiResponse.class);
+        String json = objectMapper.writeValueAsString(response.getPayload());
+        return objectMapper.readValue(json, ProductAvailability.class);
+    }
+
+    @Benchmark
+    public ProductAvailability typed() throws IOException {
+        ApiResponse<ProductAvailability> response = objectMapper.readValue(body, typedResponse);
+        return response.getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AvailabilityDecodeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
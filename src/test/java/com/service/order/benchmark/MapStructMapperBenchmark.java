@@ -0,0 +1,92 @@
+package com.service.order.benchmark;
+
+import com.service.order.mapper.MapStructMapper;
+import com.service.order.mapper.MapStructMapperImpl;
+import com.service.order.model.dto.OrderItemDto;
+import com.service.order.model.dto.request.OrderRequestDto;
+import com.service.order.model.dto.response.OrderResponseDto;
+import com.service.order.model.entity.OrderItem;
+import com.service.order.model.entity.Orders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link MapStructMapper} conversion, on an order of {@code items} lines.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapStructMapperBenchmark {
+
+    @Param({"3", "40"})
+    public int items;
+
+    private final MapStructMapper mapper = new MapStructMapperImpl();
+    private Orders order;
+    private OrderResponseDto responseDto;
+    private List<OrderItemDto> itemDtos;
+    private OrderItem orderItem;
+    private OrderItemDto itemDto;
+
+    @Setup
+    public void setUp() {
+        responseDto = OrderCacheCodecBenchmark.sampleOrder(items).order();
+        order = mapper.toOrder(responseDto);
+        order.getOrderItems().forEach(item -> item.setOrder(order));
+        itemDtos = responseDto.orderItems();
+        orderItem = order.getOrderItems().get(0);
+        itemDto = itemDtos.get(0);
+    }
+
+    @Benchmark
+    public OrderResponseDto toOrderResponseDto() {
+        return mapper.toOrderResponseDto(order);
+    }
+
+    @Benchmark
+    public OrderResponseDto toOrderResponseDtoWithItems() {
+        return mapper.toOrderResponseDto(order, itemDtos);
+    }
+
+    @Benchmark
+    public OrderRequestDto toOrderRequestDto() {
+        return mapper.toOrderRequestDto(order);
+    }
+
+    @Benchmark
+    public OrderItemDto toOrderItemDto() {
+        return mapper.toOrderItemDto(orderItem);
+    }
+
+    @Benchmark
+    public OrderItem toOrderItem() {
+        return mapper.toOrderItem(itemDto);
+    }
+
+    @Benchmark
+    public Orders toOrder() {
+        return mapper.toOrder(responseDto);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MapStructMapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,90 @@
+package com.service.order.benchmark;
+
+import com.service.order.model.dto.CachedOrder;
+import com.service.order.model.dto.OrderItemDto;
+import com.service.order.model.dto.response.OrderResponseDto;
+import com.service.order.model.enums.OrderSource;
+import com.service.order.model.enums.OrderStatus;
+import com.service.order.model.enums.PaymentMethod;
+import com.service.order.service.CachedOrderRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Encode and decode cost of a cached order with the binary {@link CachedOrderRedisSerializer}
+ * against the {@link GenericJackson2JsonRedisSerializer} it replaced. The size of one Redis value
+ * is checked by {@code CachedOrderRedisSerializerTest}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderCacheCodecBenchmark {
+
+    @Param({"binary", "json"})
+    public String codec;
+
+    @Param({"3", "40"})
+    public int items;
+
+    private RedisSerializer<Object> serializer;
+    private CachedOrder order;
+    private byte[] encoded;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        serializer = codec.equals("binary")
+                ? (RedisSerializer<Object>) (RedisSerializer<?>) new CachedOrderRedisSerializer(512)
+                : new GenericJackson2JsonRedisSerializer();
+        order = sampleOrder(items);
+        encoded = serializer.serialize(order);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(order);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    static CachedOrder sampleOrder(int items) {
+        List<OrderItemDto> orderItems = LongStream.rangeClosed(1, items)
+                .mapToObj(i -> new OrderItemDto("66b4f1c2a9e8d3" + String.format("%010d", i), i % 5 + 1))
+                .toList();
+
+        OrderResponseDto order = new OrderResponseDto(184_467L, "ORD1003457", 92_114L, "2026-03-14T09:26:53.589793",
+                OrderStatus.CONFIRMED, new BigDecimal("1483.27"), "221B Baker Street, London NW1 6XE", PaymentMethod.values()[0],
+                orderItems, new BigDecimal("50.00"), new BigDecimal("0.10"), new BigDecimal("0.07"), OrderSource.values()[0],
+                "Leave the parcel with the concierge", 3L);
+        return new CachedOrder(order, 4, 1_773_480_413_589L);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderCacheCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,141 @@
+package com.service.order.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per order line of inserting items one statement at a time with generated keys (what
+ * {@code GenerationType.IDENTITY} forces) against pooled sequence ids and a rewritten JDBC batch.
+ * Needs Docker for the Postgres container, so the benchmark profile leaves it out unless it is
+ * picked with {@code -Djmh.include=OrderItemInsertBenchmark -Djmh.exclude=VirtualThreadBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderItemInsertBenchmark {
+
+    private static final int LINES_PER_ORDER = 30;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection single;
+    private Connection batched;
+    private long orderId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        single = connect(false);
+        batched = connect(true);
+        orderId = createOrder(single);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        single.close();
+        batched.close();
+        postgres.stop();
+    }
+
+    /**
+     * One INSERT and one generated key read back per line.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LINES_PER_ORDER)
+    public void oneByOne() throws SQLException {
+        try (PreparedStatement insert = single.prepareStatement(
+                "insert into order_items (order_id, product_id, quantity) values (?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int line = 0; line < LINES_PER_ORDER; line++) {
+                insert.setLong(1, orderId);
+                insert.setString(2, "product-" + line);
+                insert.setLong(3, 1);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+        single.commit();
+    }
+
+    /**
+     * Ids taken from one pooled sequence call, all lines sent as a single batch.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LINES_PER_ORDER)
+    public void batched() throws SQLException {
+        long firstId;
+        try (Statement statement = batched.createStatement();
+             ResultSet resultSet = statement.executeQuery("select nextval('order_items_seq')")) {
+            resultSet.next();
+            firstId = resultSet.getLong(1) - ALLOCATION_SIZE + 1;
+        }
+
+        try (PreparedStatement insert = batched.prepareStatement(
+                "insert into order_items (id, order_id, product_id, quantity) values (?, ?, ?, ?)")) {
+            for (int line = 0; line < LINES_PER_ORDER; line++) {
+                insert.setLong(1, firstId + line);
+                insert.setLong(2, orderId);
+                insert.setString(3, "product-" + line);
+                insert.setLong(4, 1);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        batched.commit();
+    }
+
+    private Connection connect(boolean rewriteBatchedInserts) throws SQLException {
+        String url = postgres.getJdbcUrl() + (rewriteBatchedInserts ? "&reWriteBatchedInserts=true" : "");
+        Connection connection = DriverManager.getConnection(url, postgres.getUsername(), postgres.getPassword());
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private static long createOrder(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("insert into orders (order_number, customer_id, order_date, status, total_amount, shipping_address, payment_method, tax_amount) " +
+                     "values ('ORD-BENCHMARK', 1, now(), 'PENDING', 0, 'benchmark', 'CREDIT_CARD', 0) returning id")) {
+            resultSet.next();
+            long id = resultSet.getLong(1);
+            connection.commit();
+            return id;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderItemInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
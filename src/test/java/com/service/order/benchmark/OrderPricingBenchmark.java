@@ -0,0 +1,93 @@
+package com.service.order.benchmark;
+
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.model.dto.response.ProductDetailsDto;
+import com.service.order.model.enums.OrderSource;
+import com.service.order.model.enums.PaymentMethod;
+import com.service.order.service.OrderPricing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing of a cart of {@code lines} lines with the fixed point {@link OrderPricing#price}
+ * against the BigDecimal chain it replaced ({@link OrderPricing#exactPrice}), under a few pricing
+ * rules. Run with {@code -prof gc} to compare the allocation per order.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderPricingBenchmark {
+
+    @Param({"3", "200"})
+    public int lines;
+
+    private OrderPricing orderPricing;
+    private List<ProductDetailsDto> products;
+    private long[] quantities;
+
+    @Setup
+    public void setUp() {
+        OrderServiceConfig config = new OrderServiceConfig();
+        config.setDiscount(new BigDecimal("0.10"));
+        config.setTax(new BigDecimal("0.07"));
+        config.setShippingCost(new BigDecimal("50.00"));
+        config.getPricing().setRules(List.of(
+                rule(Set.of(), Set.of(), "500.00", null, "0"),
+                rule(Set.of(OrderSource.WEBSITE), Set.of(PaymentMethod.CREDIT_CARD), "100.00", "0.15", null),
+                rule(Set.of(OrderSource.IN_STORE), Set.of(PaymentMethod.CASH), "0", "0.05", null)));
+        orderPricing = new OrderPricing(config);
+
+        products = new ArrayList<>(lines);
+        quantities = new long[lines];
+        for (int i = 0; i < lines; i++) {
+            products.add(new ProductDetailsDto("p" + i, "Product " + i, "P" + i, "", BigDecimal.valueOf(1999 + i * 37L, 2)));
+            quantities[i] = i % 5 + 1;
+        }
+    }
+
+    @Benchmark
+    public OrderPricing.Quote fixedPoint() {
+        return orderPricing.price(OrderSource.WEBSITE, PaymentMethod.CREDIT_CARD, products, i -> quantities[i]);
+    }
+
+    @Benchmark
+    public OrderPricing.Quote bigDecimal() {
+        return orderPricing.exactPrice(OrderSource.WEBSITE, PaymentMethod.CREDIT_CARD, products, i -> quantities[i]);
+    }
+
+    private static OrderServiceConfig.PricingRule rule(Set<OrderSource> sources, Set<PaymentMethod> paymentMethods, String minSubtotal,
+                                                       String discount, String shippingCost) {
+        OrderServiceConfig.PricingRule rule = new OrderServiceConfig.PricingRule();
+        rule.setSources(sources);
+        rule.setPaymentMethods(paymentMethods);
+        rule.setMinSubtotal(new BigDecimal(minSubtotal));
+        rule.setDiscount(discount != null ? new BigDecimal(discount) : null);
+        rule.setShippingCost(shippingCost != null ? new BigDecimal(shippingCost) : null);
+        return rule;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderPricingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package com.service.order.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.order.common.ApiResponse;
+import com.service.order.model.dto.response.OrderResponseDto;
+import com.service.order.util.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON body of GET /api/orders/{id}: the {@link ApiResponse} envelope around an
+ * {@link OrderResponseDto}, written with an ObjectMapper built the way Spring MVC builds its own.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderResponseJsonBenchmark {
+
+    @Param({"3", "40"})
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<OrderResponseDto> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        response = ApiResponse.success(OrderCacheCodecBenchmark.sampleOrder(items).order(), Constants.ORDER_RETRIEVED, HttpStatus.OK);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeOrder() throws IOException {
+        return objectMapper.writeValueAsBytes(response.getPayload());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderResponseJsonBenchmark.class.getSimpleName()).build()).run();
+    }
+}
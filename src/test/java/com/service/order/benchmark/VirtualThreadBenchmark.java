@@ -0,0 +1,108 @@
+package com.service.order.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time to serve a burst of concurrent I/O-bound requests, each making three blocking downstream
+ * calls (product, inventory, database), on Tomcat's default 200 platform threads against one
+ * virtual thread per request. {@code virtual-pinned} blocks while holding a monitor, which pins
+ * the carrier thread and is what VirtualThreadPinningTest keeps out of the code base;
+ * {@code virtual-locked} does the same under a ReentrantLock.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long CALL_MILLIS = 5;
+
+    @Param({"platform", "virtual", "virtual-pinned", "virtual-locked"})
+    public String mode;
+
+    @Param({"2000"})
+    public int concurrency;
+
+    private ExecutorService requestExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        requestExecutor = mode.equals("platform")
+                ? Executors.newFixedThreadPool(TOMCAT_MAX_THREADS)
+                : Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        requestExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> requests = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            requests.add(requestExecutor.submit(this::request));
+        }
+
+        int served = 0;
+        for (Future<Integer> request : requests) {
+            served += request.get();
+        }
+        return served;
+    }
+
+    private int request() throws InterruptedException {
+        // each request has its own lock, the only contention is for carrier threads
+        Object monitor = new Object();
+        ReentrantLock lock = new ReentrantLock();
+
+        for (int call = 0; call < 3; call++) {
+            if (mode.equals("virtual-pinned")) {
+                synchronized (monitor) {
+                    Thread.sleep(CALL_MILLIS);
+                }
+            } else if (mode.equals("virtual-locked")) {
+                lock.lock();
+                try {
+                    Thread.sleep(CALL_MILLIS);
+                } finally {
+                    lock.unlock();
+                }
+            } else {
+                Thread.sleep(CALL_MILLIS);
+            }
+        }
+        return 1;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(VirtualThreadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+package com.service.order.client;
+
+import com.service.order.common.ApiResponse;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.exception.BusinessException;
+import com.service.order.model.dto.response.ProductDetailsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductBatchLoaderTest {
+
+    private final ProductClient productClient = mock(ProductClient.class);
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final ScheduledFuture<?> scheduledFlush = mock(ScheduledFuture.class);
+    private final ExecutorService lookupExecutor = mock(ExecutorService.class);
+    private final OrderServiceConfig config = new OrderServiceConfig();
+
+    private ProductBatchLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        // the window only ends when the test runs the scheduled flush, bulk calls run on the caller's thread
+        doReturn(scheduledFlush).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(lookupExecutor).execute(any(Runnable.class));
+
+        config.getProductBatch().setEnabled(true);
+        config.getProductBatch().setMaxSize(3);
+        loader = new ProductBatchLoader(productClient, config, scheduler, lookupExecutor);
+    }
+
+    @Test
+    void duplicateIdsWithinAWindowAreFetchedWithOneBulkCall() {
+        when(productClient.getProductsByIds(anyCollection())).thenReturn(ApiResponse.success(List.of(product("a"), product("b")), "", HttpStatus.OK));
+
+        CompletableFuture<ProductDetailsDto> first = loader.load("a");
+        CompletableFuture<ProductDetailsDto> second = loader.load("a");
+        CompletableFuture<ProductDetailsDto> other = loader.load("b");
+        verify(productClient, never()).getProductsByIds(anyCollection());
+
+        endWindow();
+
+        verify(productClient, times(1)).getProductsByIds(Set.of("a", "b"));
+        verify(scheduler, times(1)).schedule(any(Runnable.class), eq(config.getProductBatch().getWindowMs()), eq(TimeUnit.MILLISECONDS));
+        assertThat(first.join().id()).isEqualTo("a");
+        assertThat(second.join().id()).isEqualTo("a");
+        assertThat(other.join().id()).isEqualTo("b");
+    }
+
+    @Test
+    void fullBatchIsSentBeforeTheWindowEnds() {
+        when(productClient.getProductsByIds(anyCollection())).thenReturn(ApiResponse.success(List.of(product("a"), product("b"), product("c")), "", HttpStatus.OK));
+
+        List<CompletableFuture<ProductDetailsDto>> loads = List.of(loader.load("a"), loader.load("b"), loader.load("c"));
+
+        verify(productClient, times(1)).getProductsByIds(anyCollection());
+        verify(scheduledFlush).cancel(false);
+        assertThat(loads).allSatisfy(load -> assertThat(load).isCompleted());
+    }
+
+    @Test
+    void failedBulkCallFailsEveryWaiter() {
+        RuntimeException failure = new IllegalStateException("connection reset");
+        when(productClient.getProductsByIds(anyCollection())).thenThrow(failure);
+
+        List<CompletableFuture<ProductDetailsDto>> loads = List.of(loader.load("a"), loader.load("a"), loader.load("b"));
+        endWindow();
+
+        assertThat(loads).allSatisfy(load -> assertThatThrownBy(load::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCause(failure));
+    }
+
+    @Test
+    void missingResponseFailsEveryWaiterAsUnavailable() {
+        when(productClient.getProductsByIds(anyCollection())).thenReturn(null);
+
+        List<CompletableFuture<ProductDetailsDto>> loads = List.of(loader.load("a"), loader.load("b"));
+        endWindow();
+
+        assertThat(loads).allSatisfy(load -> assertThatThrownBy(load::join)
+                .cause()
+                .isInstanceOfSatisfying(BusinessException.class, ex -> assertThat(ex.getHttpStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)));
+    }
+
+    private void endWindow() {
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(flush.capture(), anyLong(), any(TimeUnit.class));
+        flush.getValue().run();
+    }
+
+    private static ProductDetailsDto product(String id) {
+        return new ProductDetailsDto(id, id, id, id, BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,118 @@
+package com.service.order.client;
+
+import com.service.order.common.ApiResponse;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.model.dto.response.ProductDetailsDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductDetailsCacheTest {
+
+    private final ProductClient productClient = mock(ProductClient.class);
+    private final ExecutorService lookupExecutor = mock(ExecutorService.class);
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+
+    private ProductDetailsCache productDetailsCache;
+
+    @BeforeEach
+    void setUp() {
+        // loads and refreshes only run when the test runs the queued tasks, time only moves when it says so
+        doAnswer(invocation -> tasks.add(invocation.getArgument(0))).when(lookupExecutor).execute(any(Runnable.class));
+
+        OrderServiceConfig config = new OrderServiceConfig();
+        config.getProductCache().setTtl(Duration.ofMinutes(5));
+        config.getProductCache().setRefreshAfter(Duration.ofMinutes(4));
+        config.getProductCache().setStaleTtl(Duration.ofHours(1));
+        productDetailsCache = new ProductDetailsCache(productClient, mock(ProductBatchLoader.class), config, lookupExecutor, meterRegistry, nanos::get);
+    }
+
+    @Test
+    void entriesReadAfterRefreshAfterAreReloadedWhileTheCurrentValueIsServed() {
+        when(productClient.getProductById("p-1")).thenReturn(found(product("10.00")), found(product("12.00")));
+
+        assertThat(load("p-1").price()).isEqualByComparingTo("10.00");
+
+        advance(Duration.ofMinutes(3));
+        assertThat(load("p-1").price()).isEqualByComparingTo("10.00");
+        verify(productClient, times(1)).getProductById("p-1");
+
+        advance(Duration.ofSeconds(90));
+        CompletableFuture<ProductDetailsDto> whileRefreshing = productDetailsCache.get("p-1");
+        assertThat(whileRefreshing.getNow(null).price()).isEqualByComparingTo("10.00");
+        runTasks();
+        assertThat(load("p-1").price()).isEqualByComparingTo("12.00");
+        verify(productClient, times(2)).getProductById("p-1");
+    }
+
+    @Test
+    void lastKnownValueIsServedWhileProductServiceIsUnavailable() {
+        when(productClient.getProductById("p-1")).thenReturn(found(product("10.00")), (ApiResponse<ProductDetailsDto>) null);
+
+        assertThat(load("p-1").price()).isEqualByComparingTo("10.00");
+
+        // the refresh fails and the cached value stays until it expires
+        advance(Duration.ofMinutes(4).plusSeconds(1));
+        assertThat(load("p-1").price()).isEqualByComparingTo("10.00");
+        verify(productClient, times(2)).getProductById("p-1");
+        assertThat(staleHits()).isZero();
+
+        advance(Duration.ofMinutes(1));
+        assertThat(load("p-1").price()).isEqualByComparingTo("10.00");
+        assertThat(staleHits()).isEqualTo(1);
+
+        advance(Duration.ofHours(1));
+        CompletableFuture<ProductDetailsDto> expired = productDetailsCache.get("p-1");
+        runTasks();
+        assertThat(expired).isCompletedExceptionally();
+        assertThat(staleHits()).isEqualTo(1);
+    }
+
+    private ProductDetailsDto load(String productId) {
+        CompletableFuture<ProductDetailsDto> product = productDetailsCache.get(productId);
+        runTasks();
+        return product.join();
+    }
+
+    private void runTasks() {
+        for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+            task.run();
+        }
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private double staleHits() {
+        return meterRegistry.get("cache.stale.hits").counter().count();
+    }
+
+    private static ApiResponse<ProductDetailsDto> found(ProductDetailsDto product) {
+        return ApiResponse.success(product, "", HttpStatus.OK);
+    }
+
+    private static ProductDetailsDto product(String price) {
+        return new ProductDetailsDto("p-1", "p", "p", "p", new BigDecimal(price));
+    }
+}
@@ -0,0 +1,72 @@
+package com.service.order.controller;
+
+import com.service.order.exception.GlobalExceptionHandler;
+import com.service.order.model.dto.response.BatchOrderResponseDto;
+import com.service.order.service.OrderExportService;
+import com.service.order.service.OrderIntakeService;
+import com.service.order.service.OrderService;
+import com.service.order.util.Constants;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderControllerTest {
+
+    private static final String ORDER = """
+            {"customerId": 7, "shippingAddress": "address", "paymentMethod": "CASH", "orderItems": [{"productId": "p-1", "quantity": 1}]}""";
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final MockMvc mockMvc = mockMvc(orderService);
+
+    @Test
+    void batchOfValidOrdersIsCreated() throws Exception {
+        when(orderService.createOrders(anyList())).thenReturn(new BatchOrderResponseDto(2, 0, List.of()));
+
+        mockMvc.perform(post("/api/orders/batch").contentType(MediaType.APPLICATION_JSON).content("[" + ORDER + "," + ORDER + "]"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void batchWithAnInvalidOrderIsRejected() throws Exception {
+        mockMvc.perform(post("/api/orders/batch").contentType(MediaType.APPLICATION_JSON).content("[" + ORDER + ", {\"customerId\": 7}]"))
+                .andExpect(jsonPath("$.httpStatus").value("BAD_REQUEST"));
+
+        verify(orderService, never()).createOrders(anyList());
+    }
+
+    @Test
+    void batchOverTheCapIsRejected() throws Exception {
+        String orders = String.join(",", Collections.nCopies(Constants.MAX_BATCH_SIZE + 1, ORDER));
+
+        mockMvc.perform(post("/api/orders/batch").contentType(MediaType.APPLICATION_JSON).content("[" + orders + "]"))
+                .andExpect(jsonPath("$.httpStatus").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.payload[0]").value(Constants.INVALID_BATCH_SIZE + Constants.MAX_BATCH_SIZE));
+        mockMvc.perform(post("/api/orders/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(jsonPath("$.httpStatus").value("BAD_REQUEST"));
+
+        verify(orderService, never()).createOrders(anyList());
+    }
+
+    private static MockMvc mockMvc(OrderService orderService) {
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        return MockMvcBuilders.standaloneSetup(new OrderController(orderService, mock(OrderExportService.class), mock(OrderIntakeService.class)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setValidator(validator)
+                .build();
+    }
+}
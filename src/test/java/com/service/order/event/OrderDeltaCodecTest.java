@@ -0,0 +1,92 @@
+package com.service.order.event;
+
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.model.dto.OrderItemDto;
+import com.service.order.model.dto.response.OrderResponseDto;
+import com.service.order.model.dto.response.ProductDetailsDto;
+import com.service.order.model.enums.OrderSource;
+import com.service.order.model.enums.OrderStatus;
+import com.service.order.model.enums.PaymentMethod;
+import com.service.order.service.OrderPricing;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderDeltaCodecTest {
+
+    @Test
+    void deltaRoundTripsAndRebuildsTheUpdatedOrder() {
+        OrderResponseDto before = order(3L, OrderStatus.PENDING, "old address", new BigDecimal("120.50"),
+                List.of(new OrderItemDto("p-1", 2L), new OrderItemDto("p-2", 1L)));
+        OrderResponseDto after = order(4L, OrderStatus.PENDING, "new address", new BigDecimal("99.00"),
+                List.of(new OrderItemDto("p-1", 5L), new OrderItemDto("p-3", 1L)));
+
+        OrderDeltaEvent delta = OrderDeltaEvent.between(before, after);
+        OrderDeltaEvent decoded = OrderDeltaCodec.decode(OrderDeltaCodec.encode(delta));
+
+        assertThat(decoded).isEqualTo(delta);
+        assertThat(decoded.status()).isNull();
+        assertThat(decoded.itemChanges()).containsExactlyInAnyOrder(
+                new OrderItemChange("p-1", 5), new OrderItemChange("p-3", 1), new OrderItemChange("p-2", 0));
+
+        OrderResponseDto rebuilt = decoded.applyTo(before);
+        assertThat(rebuilt).usingRecursiveComparison().ignoringFields("orderItems").isEqualTo(after);
+        assertThat(rebuilt.orderItems()).containsExactlyInAnyOrderElementsOf(after.orderItems());
+    }
+
+    @Test
+    void unchangedFieldsAreLeftOutOfThePayload() {
+        OrderResponseDto before = order(1L, OrderStatus.PENDING, "address", new BigDecimal("10.00"), List.of(new OrderItemDto("p-1", 1L)));
+        OrderResponseDto after = order(2L, OrderStatus.CANCELED, "address", new BigDecimal("10.0"), List.of(new OrderItemDto("p-1", 1L)));
+
+        OrderDeltaEvent delta = OrderDeltaEvent.between(before, after);
+        byte[] payload = OrderDeltaCodec.encode(delta);
+
+        assertThat(delta.totalAmount()).isNull();
+        assertThat(delta.itemChanges()).isEmpty();
+        assertThat(OrderDeltaCodec.decode(payload)).isEqualTo(delta);
+        assertThat(payload.length).isLessThan(16);
+    }
+
+    @Test
+    void updateCrossingASubtotalTierCarriesTheNewRates() {
+        OrderServiceConfig config = new OrderServiceConfig();
+        config.setDiscount(new BigDecimal("0.10"));
+        config.setTax(new BigDecimal("0.07"));
+        config.setShippingCost(new BigDecimal("50.00"));
+        OrderServiceConfig.PricingRule freeShipping = new OrderServiceConfig.PricingRule();
+        freeShipping.setMinSubtotal(new BigDecimal("100.00"));
+        freeShipping.setDiscount(new BigDecimal("0.15"));
+        freeShipping.setShippingCost(BigDecimal.ZERO);
+        config.getPricing().setRules(List.of(freeShipping));
+        OrderPricing orderPricing = new OrderPricing(config);
+        List<ProductDetailsDto> products = List.of(new ProductDetailsDto("p-1", "p", "p", "p", new BigDecimal("40.00")));
+
+        OrderResponseDto before = priced(3L, orderPricing.price(OrderSource.WEBSITE, PaymentMethod.CREDIT_CARD, products, i -> 2),
+                List.of(new OrderItemDto("p-1", 2L)));
+        OrderResponseDto after = priced(4L, orderPricing.price(OrderSource.WEBSITE, PaymentMethod.CREDIT_CARD, products, i -> 3),
+                List.of(new OrderItemDto("p-1", 3L)));
+
+        OrderDeltaEvent decoded = OrderDeltaCodec.decode(OrderDeltaCodec.encode(OrderDeltaEvent.between(before, after)));
+
+        assertThat(decoded.shippingCost()).isEqualByComparingTo("0");
+        assertThat(decoded.discount()).isEqualByComparingTo("0.15");
+        assertThat(decoded.taxAmount()).isNull();
+        assertThat(decoded.applyTo(before)).isEqualTo(after);
+    }
+
+    private static OrderResponseDto priced(Long version, OrderPricing.Quote quote, List<OrderItemDto> items) {
+        return new OrderResponseDto(7L, "ORD1001", 42L, "2026-01-01T10:00", OrderStatus.PENDING, quote.totalAmount(), "address",
+                PaymentMethod.CREDIT_CARD, items, quote.shippingCost(), quote.discount(), quote.tax(), OrderSource.WEBSITE, "notes", version);
+    }
+
+    private static OrderResponseDto order(Long version, OrderStatus status, String address, BigDecimal total, List<OrderItemDto> items) {
+        return new OrderResponseDto(7L, "ORD1001", 42L, "2026-01-01T10:00", status, total, address,
+                PaymentMethod.values()[0], items, new BigDecimal("50.00"), BigDecimal.ZERO, BigDecimal.ONE,
+                OrderSource.values()[0], "notes", version);
+    }
+}
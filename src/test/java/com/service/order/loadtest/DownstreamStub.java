@@ -0,0 +1,129 @@
+package com.service.order.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.order.common.ApiResponse;
+import com.service.order.model.dto.response.ProductAvailability;
+import com.service.order.model.dto.response.ProductDetailsDto;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for product-service and inventory-service, answering the endpoints of
+ * {@code ProductClient} and {@code InventoryClient} after {@code latencyMs} (plus up to
+ * {@code jitterMs}). A share of {@code errorRate} requests gets a 503 instead. Every product
+ * exists and is in stock.
+ */
+class DownstreamStub implements AutoCloseable {
+
+    static {
+        // headers and body go out as separate writes, with Nagle on every response waits for the delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    DownstreamStub(long latencyMs, long jitterMs, double errorRate) throws IOException {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.createContext("/api/products/batch", exchange -> handle(exchange, this::products));
+        server.createContext("/api/products/", exchange -> handle(exchange, this::product));
+        server.createContext("/api/inventory/check", exchange -> handle(exchange, ex -> ApiResponse.success(new ProductAvailability(true, 1_000_000L), "Product is available", HttpStatus.OK)));
+        // latency is simulated with sleeps, a virtual thread per request keeps them from queueing
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private ApiResponse<ProductDetailsDto> product(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        return ApiResponse.success(details(path.substring(path.lastIndexOf('/') + 1)), "Product retrieved successfully.", HttpStatus.OK);
+    }
+
+    private ApiResponse<List<ProductDetailsDto>> products(HttpExchange exchange) throws IOException {
+        String[] ids = objectMapper.readValue(exchange.getRequestBody(), String[].class);
+        return ApiResponse.success(Arrays.stream(ids).map(DownstreamStub::details).toList(), "Products retrieved successfully.", HttpStatus.OK);
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            sleep();
+
+            int status;
+            Object body;
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                status = HttpStatus.SERVICE_UNAVAILABLE.value();
+                body = ApiResponse.error("Stubbed outage", HttpStatus.SERVICE_UNAVAILABLE);
+            } else {
+                status = HttpStatus.OK.value();
+                body = handler.handle(exchange);
+            }
+
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, json.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(json);
+            }
+        }
+    }
+
+    private void sleep() {
+        long millis = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static ProductDetailsDto details(String id) {
+        // a stable price per product keeps the totals comparable between runs
+        BigDecimal price = BigDecimal.valueOf(500 + Math.floorMod(id.hashCode(), 20_000), 2);
+        return new ProductDetailsDto(id, "Product " + id, "P-" + id, "Load test product", price);
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(HttpExchange exchange) throws IOException;
+    }
+}
@@ -0,0 +1,42 @@
+package com.service.order.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * What one endpoint did during a load run, latencies in milliseconds. A request counts as an
+ * error when the HTTP status or the {@code httpStatus} of the response envelope isn't 2xx.
+ */
+record EndpointReport(
+        String endpoint,
+        long requests,
+        long errors,
+        double durationSeconds,
+        double throughput,
+        double p50Ms,
+        double p99Ms,
+        double p999Ms,
+        double maxMs
+) {
+
+    static EndpointReport of(String endpoint, long[] latencyNanos, long errors, double durationSeconds) {
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        return new EndpointReport(endpoint,
+                sorted.length,
+                errors,
+                durationSeconds,
+                sorted.length / durationSeconds,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.99),
+                percentile(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,118 @@
+package com.service.order.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop load: {@code concurrency} clients each send a request, wait for the answer and send
+ * the next one until the duration is up. Latency is measured per request from send to the last
+ * byte of the body.
+ */
+class LoadGenerator implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(clients)
+            .build();
+    private final int concurrency;
+
+    LoadGenerator(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Runs {@code requests} for {@code duration}, handing the body of every successful response
+     * to {@code onSuccess}.
+     */
+    EndpointReport run(String endpoint, Duration duration, Supplier<HttpRequest> requests, Consumer<JsonNode> onSuccess)
+            throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        List<Future<Client>> running = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            running.add(clients.submit(() -> new Client().run(deadline, requests, onSuccess)));
+        }
+
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (Future<Client> future : running) {
+            Client client = future.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + client.count);
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            errors += client.errors;
+        }
+        return EndpointReport.of(endpoint, latencies, errors, (System.nanoTime() - start) / 1e9);
+    }
+
+    @Override
+    public void close() {
+        clients.shutdownNow();
+    }
+
+    private boolean succeeded(HttpResponse<byte[]> response, JsonNode body) {
+        if (response.statusCode() / 100 != 2) {
+            return false;
+        }
+        // the service answers most errors with 200 and the actual status in the envelope
+        JsonNode status = body.path("httpStatus");
+        return status.isMissingNode() || HttpStatus.valueOf(status.asText()).is2xxSuccessful();
+    }
+
+    private class Client {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Client run(long deadline, Supplier<HttpRequest> requests, Consumer<JsonNode> onSuccess) {
+            while (System.nanoTime() < deadline) {
+                HttpRequest request = requests.get();
+                long sent = System.nanoTime();
+                try {
+                    HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    record(System.nanoTime() - sent);
+
+                    JsonNode body = objectMapper.readTree(response.body());
+                    if (succeeded(response, body)) {
+                        onSuccess.accept(body);
+                    } else {
+                        errors++;
+                    }
+                } catch (IOException ex) {
+                    record(System.nanoTime() - sent);
+                    errors++;
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return this;
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+}
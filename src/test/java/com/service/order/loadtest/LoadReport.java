@@ -0,0 +1,14 @@
+package com.service.order.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of {@link OrderLoadTest}, written as JSON so two builds can be diffed.
+ */
+record LoadReport(
+        String startedAt,
+        Map<String, Object> settings,
+        List<EndpointReport> endpoints
+) {
+}
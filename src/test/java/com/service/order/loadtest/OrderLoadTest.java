@@ -0,0 +1,152 @@
+package com.service.order.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.order.TestcontainersConfiguration;
+import com.service.order.model.dto.OrderItemDto;
+import com.service.order.model.dto.request.OrderRequestDto;
+import com.service.order.model.enums.OrderSource;
+import com.service.order.model.enums.PaymentMethod;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of POST /api/orders and GET /api/orders/{id} against Postgres, Kafka and Redis in
+ * containers, with {@link DownstreamStub}s standing in for product-service and inventory-service.
+ * <p>
+ * Tagged {@code load}, so it only runs with {@code mvn -Pload-test test}. Settings are system
+ * properties: {@code load.duration}, {@code load.warmup} (seconds), {@code load.concurrency},
+ * {@code load.product.latency-ms}, {@code load.product.jitter-ms}, {@code load.product.error-rate}
+ * and the same for {@code inventory}. The report is written to {@code load.report}.
+ */
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eureka.client.enabled=false", "spring.jpa.show-sql=false"})
+@Import(TestcontainersConfiguration.class)
+class OrderLoadTest {
+
+    private static final int PRODUCTS = 500;
+
+    private static final DownstreamStub productService = stub("product");
+    private static final DownstreamStub inventoryService = stub("inventory");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void downstreamServices(DynamicPropertyRegistry properties) {
+        properties.add("product.service.url", productService::url);
+        properties.add("inventory.service.url", inventoryService::url);
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        productService.close();
+        inventoryService.close();
+    }
+
+    @Test
+    void createAndGetOrders() throws Exception {
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 30));
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+        int concurrency = Integer.getInteger("load.concurrency", 16);
+        Path reportPath = Path.of(System.getProperty("load.report", "target/load-test/report.json"));
+
+        List<Long> orderIds = new CopyOnWriteArrayList<>();
+        List<EndpointReport> endpoints = new ArrayList<>();
+
+        try (LoadGenerator load = new LoadGenerator(concurrency)) {
+            load.run("warmup", warmup, this::createOrderRequest, body -> orderIds.add(body.path("payload").path("id").asLong()));
+
+            endpoints.add(load.run("POST /api/orders", duration, this::createOrderRequest,
+                    body -> orderIds.add(body.path("payload").path("id").asLong())));
+
+            assertThat(orderIds).as("orders created").isNotEmpty();
+            List<Long> created = List.copyOf(orderIds);
+            endpoints.add(load.run("GET /api/orders/{id}", duration,
+                    () -> get("/api/orders/" + created.get(ThreadLocalRandom.current().nextInt(created.size()))),
+                    body -> { }));
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("durationSeconds", duration.toSeconds());
+        settings.put("concurrency", concurrency);
+        settings.put("productLatencyMs", Long.getLong("load.product.latency-ms", 20));
+        settings.put("productErrorRate", System.getProperty("load.product.error-rate", "0"));
+        settings.put("inventoryLatencyMs", Long.getLong("load.inventory.latency-ms", 20));
+        settings.put("inventoryErrorRate", System.getProperty("load.inventory.error-rate", "0"));
+        settings.put("productRequests", productService.requests());
+        settings.put("inventoryRequests", inventoryService.requests());
+
+        LoadReport report = new LoadReport(Instant.now().toString(), settings, endpoints);
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportPath.toFile(), report);
+
+        endpoints.forEach(endpoint -> System.out.printf("%-22s %8d requests %6d errors %10.1f req/s  p50 %7.2f ms  p99 %7.2f ms  p999 %7.2f ms%n",
+                endpoint.endpoint(), endpoint.requests(), endpoint.errors(), endpoint.throughput(),
+                endpoint.p50Ms(), endpoint.p99Ms(), endpoint.p999Ms()));
+        assertThat(endpoints).allSatisfy(endpoint -> assertThat(endpoint.requests()).isPositive());
+    }
+
+    private HttpRequest createOrderRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<OrderItemDto> items = new ArrayList<>();
+        random.ints(0, PRODUCTS).distinct().limit(random.nextInt(1, 6))
+                .forEach(product -> items.add(new OrderItemDto("load-%05d".formatted(product), random.nextLong(1, 4))));
+
+        OrderRequestDto order = new OrderRequestDto(null, random.nextLong(1, 100_000), null, null, null,
+                "221B Baker Street, London", PaymentMethod.CREDIT_CARD, items, null, null, null, OrderSource.values()[0], null);
+        try {
+            return HttpRequest.newBuilder(uri("/api/orders"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(order)))
+                    .build();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static DownstreamStub stub(String service) {
+        try {
+            return new DownstreamStub(Long.getLong("load." + service + ".latency-ms", 20),
+                    Long.getLong("load." + service + ".jitter-ms", 10),
+                    Double.parseDouble(System.getProperty("load." + service + ".error-rate", "0")));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.service.order.metrics;
+
+import com.service.order.config.OrderServiceConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStagesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+    private final SlowOrderRequestsEndpoint slowRequests = new SlowOrderRequestsEndpoint(new OrderServiceConfig());
+    private final OrderStages orderStages = new OrderStages(meterRegistry, observationRegistry, slowRequests);
+
+    @Test
+    void recordsStagesTaggedWithTheOperationAndAttachesTheBreakdownToTheCurrentObservation() {
+        observationRegistry.observationConfig().observationHandler(context -> true);
+        Observation request = Observation.start("http.server.requests", observationRegistry);
+
+        request.scoped(() -> orderStages.operation("createOrder", 3, () -> {
+            orderStages.stage("order-lines", () -> sleep(5));
+            orderStages.stage("flush", () -> sleep(1));
+            orderStages.record("product-lookup", TimeUnit.MILLISECONDS.toNanos(4), false);
+        }));
+
+        assertThat(meterRegistry.get("order.operation").tag("operation", "createOrder").tag("outcome", "success").tag("lines", "2-5").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.stage").tag("stage", "order-lines").tag("lines", "2-5").timer().totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(5);
+        assertThat(meterRegistry.get("order.stage").tag("stage", "product-lookup").timer().count()).isEqualTo(1);
+
+        assertThat(request.getContext().getHighCardinalityKeyValue("order.stages").getValue())
+                .startsWith("lines=3 order-lines=")
+                .contains("flush=", "product-lookup=4.0ms");
+
+        StageBreakdown slowest = slowRequests.slowest(null).get(0);
+        assertThat(slowest.operation()).isEqualTo("createOrder");
+        assertThat(slowest.stagesMs()).containsOnlyKeys("order-lines", "flush", "product-lookup");
+    }
+
+    @Test
+    void failedOperationIsTaggedErrorWithTheLineCountSetLater() {
+        assertThatThrownBy(() -> orderStages.operation("getOrder", 0, () -> {
+            orderStages.lines(40);
+            orderStages.stage("db-load", () -> {
+                throw new IllegalStateException("down");
+            });
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get("order.operation").tag("outcome", "error").tag("lines", "21-100").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.stage").tag("stage", "db-load").tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void stagesOutsideAnOperationAreNotRecorded() {
+        assertThat(orderStages.stage("db-load", () -> "order")).isEqualTo("order");
+
+        assertThat(meterRegistry.find("order.stage").timers()).isEmpty();
+        assertThat(slowRequests.slowest(null)).isEmpty();
+    }
+
+    @Test
+    void slowestRequestsComeFirst() {
+        orderStages.operation("getOrder", 1, () -> sleep(1));
+        orderStages.operation("createOrder", 1, () -> sleep(20));
+        orderStages.operation("getOrder", 1, () -> sleep(5));
+
+        assertThat(slowRequests.slowest(2)).extracting(StageBreakdown::operation).containsExactly("createOrder", "getOrder");
+        assertThat(slowRequests.slowest(-1)).isEmpty();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
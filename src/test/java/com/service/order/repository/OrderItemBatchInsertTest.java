@@ -0,0 +1,79 @@
+package com.service.order.repository;
+
+import com.service.order.model.entity.OrderItem;
+import com.service.order.model.entity.Orders;
+import com.service.order.model.enums.OrderStatus;
+import com.service.order.model.enums.PaymentMethod;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Saving an order sends its items in JDBC batches of {@code hibernate.jdbc.batch_size} with ids
+ * from pooled sequence blocks, instead of one insert and one key read back per item.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class OrderItemBatchInsertTest {
+
+    private static final int ITEMS = 120;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void itemsOfAnOrderAreInsertedInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Orders order = Orders.builder()
+                .orderNumber("ORD-BATCH")
+                .customerId(1L)
+                .status(OrderStatus.PENDING)
+                .totalAmount(BigDecimal.ZERO)
+                .shippingAddress("street 1")
+                .paymentMethod(PaymentMethod.CREDIT_CARD)
+                .taxAmount(BigDecimal.ZERO)
+                .build();
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(OrderItem.builder().order(order).productId("product-" + i).quantity(1L).build());
+        }
+        order.setOrderItems(items);
+
+        orderRepository.save(order);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ITEMS + 1);
+        // per 50 items one sequence call and one batch, plus the order's sequence call and insert;
+        // one statement per item would be over ITEMS
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2 * (ITEMS / 50 + 1) + 2);
+    }
+}
@@ -0,0 +1,64 @@
+package com.service.order.service;
+
+import com.service.order.model.dto.CachedOrder;
+import com.service.order.model.dto.OrderItemDto;
+import com.service.order.model.dto.response.OrderResponseDto;
+import com.service.order.model.enums.OrderSource;
+import com.service.order.model.enums.OrderStatus;
+import com.service.order.model.enums.PaymentMethod;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedOrderRedisSerializerTest {
+
+    private final CachedOrderRedisSerializer serializer = new CachedOrderRedisSerializer(512);
+
+    @Test
+    void roundTripsSmallAndCompressedOrders() {
+        for (int items : new int[]{1, 200}) {
+            CachedOrder order = order(items, "notes");
+            byte[] bytes = serializer.serialize(order);
+
+            assertThat(serializer.deserialize(bytes)).isEqualTo(order);
+            assertThat(bytes.length).isLessThan(new GenericJackson2JsonRedisSerializer().serialize(order).length / 2);
+        }
+    }
+
+    @Test
+    void bytesPerEntryStayWithinBudget() {
+        // 130, 250 and 727 bytes when written, 7 to 27 times smaller than the JSON values
+        assertThat(serializer.serialize(order(3, "notes")).length).isLessThanOrEqualTo(160);
+        assertThat(serializer.serialize(order(40, "notes")).length).isLessThanOrEqualTo(320);
+        assertThat(serializer.serialize(order(200, "notes")).length).isLessThanOrEqualTo(1024);
+    }
+
+    @Test
+    void keepsNullComponents() {
+        CachedOrder order = order(0, null);
+
+        assertThat(serializer.deserialize(serializer.serialize(order))).isEqualTo(order);
+    }
+
+    @Test
+    void readsValuesInAnotherFormatAsMisses() {
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(order(2, "notes"));
+
+        assertThat(serializer.deserialize(json)).isNull();
+    }
+
+    private static CachedOrder order(int items, String notes) {
+        List<OrderItemDto> orderItems = LongStream.rangeClosed(1, items)
+                .mapToObj(i -> new OrderItemDto("product-" + i, i))
+                .toList();
+
+        return new CachedOrder(new OrderResponseDto(12L, "ORD1012", 7L, "2026-01-01T10:00", OrderStatus.PENDING,
+                new BigDecimal("1234.50"), "address", PaymentMethod.values()[0], orderItems, new BigDecimal("50.00"),
+                new BigDecimal("0.10"), new BigDecimal("0.07"), OrderSource.values()[0], notes, 2L), 3, 1_800_000_000_000L);
+    }
+}
@@ -0,0 +1,135 @@
+package com.service.order.service;
+
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.model.dto.CachedOrder;
+import com.service.order.model.dto.response.OrderResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderCacheTest {
+
+    private static final int CALLERS = 32;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentMissesOfOneOrderLoadItOnce() throws Exception {
+        RedisTemplate<String, CachedOrder> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+        OrderCache orderCache = new OrderCache(redisTemplate, mock(StringRedisTemplate.class), mock(RedisMessageListenerContainer.class), new OrderServiceConfig(), new SimpleMeterRegistry(), 60);
+
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(CALLERS);
+        CountDownLatch release = new CountDownLatch(1);
+        OrderResponseDto order = order(1L);
+
+        List<Future<OrderResponseDto>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> {
+                started.countDown();
+                return orderCache.get(1L, id -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return order;
+                });
+            }));
+        }
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // let every caller reach the miss path before the database answers
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<OrderResponseDto> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(order);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ordersPutInARolledBackTransactionAreNotCached() {
+        RedisTemplate<String, CachedOrder> redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, CachedOrder> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        OrderCache orderCache = new OrderCache(redisTemplate, mock(StringRedisTemplate.class), mock(RedisMessageListenerContainer.class), new OrderServiceConfig(), new SimpleMeterRegistry(), 60);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            orderCache.put(order(1L));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> orderCache.put(order(2L)));
+
+        verify(values, never()).set(eq("order:1"), any(), anyLong(), any());
+        verify(values).set(eq("order:2"), any(), anyLong(), any());
+        OrderResponseDto reloaded = order(1L);
+        assertThat(orderCache.get(1L, id -> reloaded)).isSameAs(reloaded);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // runs the synchronizations of a real transaction, without a resource behind it
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    private static OrderResponseDto order(Long id) {
+        return new OrderResponseDto(id, "ORD" + id, 1L, null, null, null, null, null, List.of(), null, null, null, null, null, 0L);
+    }
+}
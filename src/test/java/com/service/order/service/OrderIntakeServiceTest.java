@@ -0,0 +1,77 @@
+package com.service.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.order.common.ApiResponse;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.exception.GlobalExceptionHandler;
+import com.service.order.exception.OrderIntakeFullException;
+import com.service.order.model.dto.OrderItemDto;
+import com.service.order.model.dto.request.OrderRequestDto;
+import com.service.order.model.entity.OrderIntake;
+import com.service.order.model.enums.IntakeStatus;
+import com.service.order.model.enums.PaymentMethod;
+import com.service.order.repository.OrderIntakeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIntakeServiceTest {
+
+    @Test
+    void turnsRequestsAwayWithA503AndRetryAfterOnceMaxPendingIsReached() {
+        OrderIntakeRepository orderIntakeRepository = mock(OrderIntakeRepository.class);
+        when(orderIntakeRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderIntakeRepository.countByStatus(IntakeStatus.PENDING)).thenReturn(1L);
+
+        OrderServiceConfig config = new OrderServiceConfig();
+        config.getIntake().setMaxPending(2);
+        config.getIntake().setPollIntervalMs(3_000);
+        OrderIntakeService orderIntakeService = new OrderIntakeService(orderIntakeRepository, new ObjectMapper(), config, new SimpleMeterRegistry());
+        orderIntakeService.refreshPending();
+
+        assertThat(orderIntakeService.submit(request()).status()).isEqualTo(IntakeStatus.PENDING);
+
+        OrderIntakeFullException full = catchThrowableOfType(() -> orderIntakeService.submit(request()), OrderIntakeFullException.class);
+        assertThat(full.getRetryAfterSeconds()).isEqualTo(3);
+        verify(orderIntakeRepository).save(any(OrderIntake.class));
+
+        ResponseEntity<ApiResponse> response = new GlobalExceptionHandler().handleOrderIntakeFullException(full);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+    }
+
+    @Test
+    void acceptsAgainOnceTheWorkersCaughtUp() {
+        OrderIntakeRepository orderIntakeRepository = mock(OrderIntakeRepository.class);
+        when(orderIntakeRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderIntakeRepository.countByStatus(IntakeStatus.PENDING)).thenReturn(5L, 0L);
+
+        OrderServiceConfig config = new OrderServiceConfig();
+        config.getIntake().setMaxPending(5);
+        OrderIntakeService orderIntakeService = new OrderIntakeService(orderIntakeRepository, new ObjectMapper(), config, new SimpleMeterRegistry());
+
+        orderIntakeService.refreshPending();
+        assertThat(catchThrowableOfType(() -> orderIntakeService.submit(request()), OrderIntakeFullException.class).getRetryAfterSeconds()).isEqualTo(1);
+        verify(orderIntakeRepository, never()).save(any());
+
+        orderIntakeService.refreshPending();
+        assertThat(orderIntakeService.submit(request()).trackingId()).isNotNull();
+    }
+
+    private static OrderRequestDto request() {
+        return new OrderRequestDto(null, 1L, null, null, null, "street 1", PaymentMethod.CASH,
+                List.of(new OrderItemDto("p", 1L)), null, null, null, null, null);
+    }
+}
@@ -0,0 +1,137 @@
+package com.service.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.model.dto.response.BatchOrderResponseDto;
+import com.service.order.model.dto.response.BatchOrderResultDto;
+import com.service.order.model.dto.response.OrderResponseDto;
+import com.service.order.model.entity.OrderIntake;
+import com.service.order.model.enums.IntakeStatus;
+import com.service.order.repository.OrderIntakeRepository;
+import com.service.order.util.Constants;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIntakeWorkerTest {
+
+    private final OrderIntakeRepository orderIntakeRepository = mock(OrderIntakeRepository.class);
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderServiceConfig config = new OrderServiceConfig();
+    private final OrderIntakeWorker worker;
+
+    OrderIntakeWorkerTest() {
+        config.getIntake().setMaxAttempts(3);
+        config.getIntake().setRetryBackoff(Duration.ofSeconds(5));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        worker = new OrderIntakeWorker(orderIntakeRepository, mock(OrderIntakeService.class), orderService, new ObjectMapper(),
+                config, mock(ExecutorService.class), transactionManager);
+    }
+
+    @Test
+    void completeRecordsCreatedOrdersAndRetriesOnlyDownstreamFailures() {
+        OrderIntake created = intake(0);
+        OrderIntake unavailable = intake(0);
+        OrderIntake unavailableLastAttempt = intake(2);
+        OrderIntake invalid = intake(0);
+
+        LocalDateTime before = LocalDateTime.now();
+        worker.complete(List.of(created, unavailable, unavailableLastAttempt, invalid), new BatchOrderResponseDto(1, 3, List.of(
+                BatchOrderResultDto.created(0, order(42L)),
+                BatchOrderResultDto.failed(1, Constants.PRODUCT_SERVICE_NOT_AVAILABLE, HttpStatus.SERVICE_UNAVAILABLE),
+                BatchOrderResultDto.failed(2, Constants.PRODUCT_SERVICE_NOT_AVAILABLE, HttpStatus.SERVICE_UNAVAILABLE),
+                BatchOrderResultDto.failed(3, Constants.INVALID_INPUT, HttpStatus.BAD_REQUEST))));
+
+        assertThat(created.getStatus()).isEqualTo(IntakeStatus.COMPLETED);
+        assertThat(created.getOrderId()).isEqualTo(42L);
+        assertThat(created.getAttempts()).isEqualTo(1);
+
+        assertThat(unavailable.getStatus()).isEqualTo(IntakeStatus.PENDING);
+        assertThat(unavailable.getAttempts()).isEqualTo(1);
+        assertThat(unavailable.getError()).isEqualTo(Constants.PRODUCT_SERVICE_NOT_AVAILABLE);
+        assertThat(unavailable.getNextAttemptAt()).isBetween(before.plusSeconds(5), LocalDateTime.now().plusSeconds(5));
+
+        assertThat(unavailableLastAttempt.getStatus()).isEqualTo(IntakeStatus.FAILED);
+        assertThat(unavailableLastAttempt.getAttempts()).isEqualTo(3);
+
+        assertThat(invalid.getStatus()).isEqualTo(IntakeStatus.FAILED);
+        assertThat(invalid.getAttempts()).isEqualTo(1);
+        assertThat(invalid.getError()).isEqualTo(Constants.INVALID_INPUT);
+    }
+
+    @Test
+    void aRolledBackBatchChargesAnAttemptToTheClaimedRequestsOnly() {
+        List<OrderIntake> claimed = List.of(intake(0), intake(2));
+        when(orderIntakeRepository.claimDue(anyInt())).thenReturn(claimed);
+        when(orderIntakeRepository.lockAllById(anyList())).thenReturn(claimed);
+        when(orderService.prepareOrders(anyList())).thenReturn(new OrderService.PreparedOrders(new BatchOrderResultDto[2], List.of(), List.of()));
+        when(orderService.insertOrders(any())).thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        assertThat(worker.processBatch(10)).isEqualTo(2);
+
+        verify(orderIntakeRepository, times(1)).claimDue(10);
+        List<UUID> claimedIds = claimed.stream().map(OrderIntake::getTrackingId).toList();
+        verify(orderIntakeRepository, times(2)).lockAllById(claimedIds);
+
+        assertThat(claimed.get(0).getStatus()).isEqualTo(IntakeStatus.PENDING);
+        assertThat(claimed.get(0).getAttempts()).isEqualTo(1);
+        assertThat(claimed.get(1).getStatus()).isEqualTo(IntakeStatus.FAILED);
+        assertThat(claimed.get(1).getAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void aBatchWhoseLeaseWasTakenOverIsNotInserted() {
+        OrderIntake kept = intake(0);
+        OrderIntake takenOver = intake(0);
+        when(orderIntakeRepository.claimDue(anyInt())).thenReturn(List.of(kept, takenOver));
+        when(orderService.prepareOrders(anyList())).thenReturn(new OrderService.PreparedOrders(new BatchOrderResultDto[2], List.of(), List.of()));
+        when(orderIntakeRepository.lockAllById(anyList())).thenAnswer(invocation -> {
+            takenOver.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+            return new ArrayList<>(List.of(kept, takenOver));
+        });
+
+        worker.processBatch(10);
+
+        verify(orderService, times(0)).insertOrders(any());
+        assertThat(kept.getNextAttemptAt()).isBeforeOrEqualTo(LocalDateTime.now());
+        assertThat(kept.getAttempts()).isZero();
+    }
+
+    private static OrderIntake intake(int attempts) {
+        LocalDateTime now = LocalDateTime.now();
+        return OrderIntake.builder()
+                .trackingId(UUID.randomUUID())
+                .payload("{}".getBytes())
+                .status(IntakeStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private static OrderResponseDto order(Long id) {
+        return new OrderResponseDto(id, "ORD1", 1L, null, null, null, null, null, List.of(), null, null, null, null, null, 0L);
+    }
+}
@@ -0,0 +1,94 @@
+package com.service.order.service;
+
+import com.service.order.client.InventoryClient;
+import com.service.order.client.ProductDetailsCache;
+import com.service.order.common.ApiResponse;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.exception.BusinessException;
+import com.service.order.metrics.OrderStages;
+import com.service.order.model.dto.OrderItemDto;
+import com.service.order.model.dto.response.ProductAvailability;
+import com.service.order.model.dto.response.ProductDetailsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderLineResolverTest {
+
+    private final ExecutorService lookupExecutor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        lookupExecutor.shutdownNow();
+    }
+
+    @Test
+    void batchLooksUpEachProductOnceAndFailsOnlyTheOrdersOfAFailingLine() {
+        ProductDetailsCache productDetailsCache = mock(ProductDetailsCache.class);
+        when(productDetailsCache.get(anyString())).thenAnswer(invocation -> {
+            String id = invocation.getArgument(0);
+            return id.equals("missing")
+                    ? CompletableFuture.failedFuture(new BusinessException("Product not found: missing", HttpStatus.NOT_FOUND))
+                    : CompletableFuture.completedFuture(new ProductDetailsDto(id, id, id, id, BigDecimal.TEN));
+        });
+
+        InventoryClient inventoryClient = mock(InventoryClient.class);
+        when(inventoryClient.checkProductAvailability(anyString(), anyLong()))
+                .thenReturn(ApiResponse.success(new ProductAvailability(true, 100L), "", HttpStatus.OK));
+
+        OrderLineResolver resolver = new OrderLineResolver(productDetailsCache, inventoryClient, new OrderServiceConfig(), lookupExecutor, mock(OrderStages.class));
+
+        List<CompletableFuture<List<ProductDetailsDto>>> resolved = resolver.resolveEach(List.of(
+                List.of(new OrderItemDto("a", 1L), new OrderItemDto("b", 2L)),
+                List.of(new OrderItemDto("a", 1L), new OrderItemDto("missing", 1L)),
+                List.of(new OrderItemDto("b", 2L))));
+
+        assertThat(resolved.get(0).join()).extracting(ProductDetailsDto::id).containsExactly("a", "b");
+        assertThat(resolved.get(1)).isCompletedExceptionally();
+        assertThat(resolved.get(2).join()).extracting(ProductDetailsDto::id).containsExactly("b");
+
+        verify(productDetailsCache, times(1)).get("a");
+        verify(productDetailsCache, times(1)).get("b");
+        verify(inventoryClient, times(1)).checkProductAvailability("a", 1L);
+        verify(inventoryClient, times(1)).checkProductAvailability("b", 2L);
+    }
+
+    @Test
+    void firstFailingLineFailsTheOrderWithoutWaitingForTheOthers() {
+        CompletableFuture<ProductDetailsDto> slow = new CompletableFuture<>();
+        ProductDetailsCache productDetailsCache = mock(ProductDetailsCache.class);
+        when(productDetailsCache.get("slow")).thenReturn(slow);
+        when(productDetailsCache.get("missing"))
+                .thenReturn(CompletableFuture.failedFuture(new BusinessException("Product not found: missing", HttpStatus.NOT_FOUND)));
+
+        InventoryClient inventoryClient = mock(InventoryClient.class);
+        when(inventoryClient.checkProductAvailability(anyString(), anyLong()))
+                .thenReturn(ApiResponse.success(new ProductAvailability(true, 100L), "", HttpStatus.OK));
+
+        OrderServiceConfig config = new OrderServiceConfig();
+        config.getLookup().setTimeoutMs(30_000);
+        OrderLineResolver resolver = new OrderLineResolver(productDetailsCache, inventoryClient, config, lookupExecutor, mock(OrderStages.class));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThatThrownBy(() -> resolver.resolve(List.of(new OrderItemDto("slow", 1L), new OrderItemDto("missing", 1L))))
+                .isInstanceOfSatisfying(BusinessException.class, ex -> assertThat(ex.getHttpStatus()).isEqualTo(HttpStatus.NOT_FOUND)));
+        // only this order's view of the lookup is cancelled, see ProductDetailsCache#get
+        assertThat(slow).isCancelled();
+    }
+}
@@ -0,0 +1,66 @@
+package com.service.order.service;
+
+import com.service.order.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderNumberAllocatorTest {
+
+    private static final long BLOCK_SIZE = 50;
+
+    private final ExecutorService refillExecutor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        refillExecutor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersGetUniqueNumbersWithOneSequenceCallPerBlock() throws InterruptedException {
+        AtomicLong sequence = new AtomicLong(1);
+        AtomicLong sequenceCalls = new AtomicLong();
+
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findOrderNumberSequenceIncrement()).thenReturn(BLOCK_SIZE);
+        when(orderRepository.findNextValOfSequence()).thenAnswer(invocation -> {
+            sequenceCalls.incrementAndGet();
+            return sequence.getAndAdd(BLOCK_SIZE);
+        });
+
+        OrderNumberAllocator allocator = new OrderNumberAllocator(orderRepository, refillExecutor);
+
+        int threads = 8;
+        int perThread = 1_000;
+        Set<Long> numbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            callers.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    numbers.add(allocator.next());
+                }
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        callers.shutdown();
+
+        assertThat(numbers).hasSize(threads * perThread);
+        // prefetching may reserve one block ahead, but never one sequence call per order
+        assertThat(sequenceCalls.get()).isLessThanOrEqualTo(threads * perThread / BLOCK_SIZE + 2);
+    }
+}
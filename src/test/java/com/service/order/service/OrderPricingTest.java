@@ -0,0 +1,168 @@
+package com.service.order.service;
+
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.model.dto.response.ProductDetailsDto;
+import com.service.order.model.enums.OrderSource;
+import com.service.order.model.enums.PaymentMethod;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderPricingTest {
+
+    @Test
+    void fixedPointTotalsMatchTheBigDecimalTotals() {
+        Random random = new Random(42);
+
+        for (RoundingMode roundingMode : List.of(RoundingMode.HALF_UP, RoundingMode.HALF_EVEN, RoundingMode.DOWN, RoundingMode.CEILING)) {
+            for (String[] rates : List.of(new String[]{"0.10", "0.07", "50.00"}, new String[]{"0.125", "0.0825", "4.99"}, new String[]{"0", "0.2", "0"})) {
+                OrderServiceConfig config = config(rates[0], rates[1], rates[2], roundingMode);
+                OrderPricing orderPricing = new OrderPricing(config);
+
+                for (int order = 0; order < 2_000; order++) {
+                    List<ProductDetailsDto> products = new ArrayList<>();
+                    long[] quantities = new long[1 + random.nextInt(60)];
+                    for (int i = 0; i < quantities.length; i++) {
+                        products.add(product(BigDecimal.valueOf(random.nextInt(2_000_000), random.nextInt(3))));
+                        quantities[i] = 1 + random.nextInt(50);
+                    }
+
+                    BigDecimal fixedPoint = orderPricing.price(OrderSource.WEBSITE, PaymentMethod.CREDIT_CARD, products, i -> quantities[i]).totalAmount();
+
+                    assertThat(fixedPoint).isEqualTo(orderPricing.exactPrice(OrderSource.WEBSITE, PaymentMethod.CREDIT_CARD, products, i -> quantities[i]).totalAmount());
+                    assertThat(fixedPoint).isEqualTo(legacyTotal(config, products, quantities).setScale(2, roundingMode));
+                }
+            }
+        }
+    }
+
+    @Test
+    void pricesWithMoreDecimalsThanThePriceScaleAreStillExact() {
+        OrderServiceConfig config = config("0.10", "0.07", "50.00", RoundingMode.HALF_UP);
+        List<ProductDetailsDto> products = List.of(product(new BigDecimal("19.995")), product(new BigDecimal("0.0001")));
+        long[] quantities = {3, 7};
+
+        assertThat(new OrderPricing(config).price(null, null, products, i -> quantities[i]).totalAmount())
+                .isEqualTo(legacyTotal(config, products, quantities).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    void amountsTooLargeForALongFallBackToBigDecimal() {
+        OrderServiceConfig config = config("0.10", "0.07", "50.00", RoundingMode.HALF_UP);
+        List<ProductDetailsDto> products = List.of(product(new BigDecimal("9999999999.99")));
+        long[] quantities = {Integer.MAX_VALUE};
+
+        assertThat(new OrderPricing(config).price(null, null, products, i -> quantities[i]).totalAmount())
+                .isEqualTo(legacyTotal(config, products, quantities).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    void rulesOverrideTheRatesPerSourcePaymentMethodAndSubtotal() {
+        OrderServiceConfig config = config("0.10", "0.07", "50.00", RoundingMode.HALF_UP);
+        config.getPricing().setRules(List.of(
+                rule(Set.of(), Set.of(), "500.00", null, null, "0"),
+                rule(Set.of(OrderSource.IN_STORE), Set.of(PaymentMethod.CASH), "0", "0.05", "0", null),
+                rule(Set.of(OrderSource.WEBSITE), Set.of(), "100.00", "0.15", null, null)));
+        OrderPricing orderPricing = new OrderPricing(config);
+
+        assertThat(orderPricing.price(OrderSource.WEBSITE, PaymentMethod.PAYPAL, cart("99.99"), i -> 1))
+                .isEqualTo(new OrderPricing.Quote(new BigDecimal("146.29"), new BigDecimal("0.10"), new BigDecimal("0.07"), new BigDecimal("50.00")));
+        assertThat(orderPricing.price(OrderSource.WEBSITE, PaymentMethod.PAYPAL, cart("100.00"), i -> 1))
+                .isEqualTo(new OrderPricing.Quote(new BigDecimal("140.95"), new BigDecimal("0.15"), new BigDecimal("0.07"), new BigDecimal("50.00")));
+        assertThat(orderPricing.price(OrderSource.WEBSITE, null, cart("500.00"), i -> 1))
+                .isEqualTo(new OrderPricing.Quote(new BigDecimal("454.75"), new BigDecimal("0.15"), new BigDecimal("0.07"), new BigDecimal("0")));
+        assertThat(orderPricing.price(OrderSource.IN_STORE, PaymentMethod.CASH, cart("10.00"), i -> 3))
+                .isEqualTo(new OrderPricing.Quote(new BigDecimal("78.50"), new BigDecimal("0.05"), new BigDecimal("0"), new BigDecimal("50.00")));
+        assertThat(orderPricing.price(OrderSource.IN_STORE, PaymentMethod.DEBIT_CARD, cart("10.00"), i -> 3).discount())
+                .isEqualTo(new BigDecimal("0.10"));
+        assertThat(orderPricing.price(null, null, cart("250.00", "250.00"), i -> 1).shippingCost())
+                .isEqualTo(new BigDecimal("0"));
+
+        Random random = new Random(7);
+        for (int order = 0; order < 5_000; order++) {
+            OrderSource source = random.nextInt(4) == 0 ? null : OrderSource.values()[random.nextInt(OrderSource.values().length)];
+            PaymentMethod paymentMethod = random.nextInt(6) == 0 ? null : PaymentMethod.values()[random.nextInt(PaymentMethod.values().length)];
+            List<ProductDetailsDto> products = new ArrayList<>();
+            long[] quantities = new long[1 + random.nextInt(5)];
+            for (int i = 0; i < quantities.length; i++) {
+                products.add(product(BigDecimal.valueOf(random.nextInt(30_000), random.nextInt(3))));
+                quantities[i] = 1 + random.nextInt(4);
+            }
+
+            assertThat(orderPricing.price(source, paymentMethod, products, i -> quantities[i]))
+                    .isEqualTo(orderPricing.exactPrice(source, paymentMethod, products, i -> quantities[i]));
+        }
+    }
+
+    @Test
+    void recompilesTheRulesWhenTheConfigIsRebound() {
+        OrderServiceConfig config = config("0.10", "0.07", "50.00", RoundingMode.HALF_UP);
+        OrderPricing orderPricing = new OrderPricing(config);
+        assertThat(orderPricing.price(OrderSource.MOBILE_APP, PaymentMethod.CASH, cart("100.00"), i -> 1).totalAmount())
+                .isEqualTo(new BigDecimal("146.30"));
+
+        config.getPricing().setRules(List.of(rule(Set.of(OrderSource.MOBILE_APP), Set.of(), "0", "0.20", null, null)));
+
+        assertThat(orderPricing.price(OrderSource.MOBILE_APP, PaymentMethod.CASH, cart("100.00"), i -> 1).totalAmount())
+                .isEqualTo(new BigDecimal("135.60"));
+    }
+
+    @Test
+    void roundsTiesWithTheConfiguredMode() {
+        assertThat(OrderPricing.divide(25, 10, RoundingMode.HALF_UP)).isEqualTo(3);
+        assertThat(OrderPricing.divide(25, 10, RoundingMode.HALF_DOWN)).isEqualTo(2);
+        assertThat(OrderPricing.divide(25, 10, RoundingMode.HALF_EVEN)).isEqualTo(2);
+        assertThat(OrderPricing.divide(35, 10, RoundingMode.HALF_EVEN)).isEqualTo(4);
+        assertThat(OrderPricing.divide(-25, 10, RoundingMode.HALF_UP)).isEqualTo(-3);
+        assertThat(OrderPricing.divide(-21, 10, RoundingMode.FLOOR)).isEqualTo(-3);
+        assertThat(OrderPricing.divide(21, 10, RoundingMode.CEILING)).isEqualTo(3);
+    }
+
+    // the chain createOrder used before the fixed point engine, without rounding
+    private static BigDecimal legacyTotal(OrderServiceConfig config, List<ProductDetailsDto> products, long[] quantities) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (int i = 0; i < products.size(); i++) {
+            totalAmount = totalAmount.add(products.get(i).price().multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        totalAmount = totalAmount.subtract(totalAmount.multiply(config.getDiscount()));
+        totalAmount = totalAmount.add(totalAmount.multiply(config.getTax()));
+        return totalAmount.add(config.getShippingCost());
+    }
+
+    private static OrderServiceConfig config(String discount, String tax, String shippingCost, RoundingMode roundingMode) {
+        OrderServiceConfig config = new OrderServiceConfig();
+        config.setDiscount(new BigDecimal(discount));
+        config.setTax(new BigDecimal(tax));
+        config.setShippingCost(new BigDecimal(shippingCost));
+        config.getPricing().setRoundingMode(roundingMode);
+        return config;
+    }
+
+    private static OrderServiceConfig.PricingRule rule(Set<OrderSource> sources, Set<PaymentMethod> paymentMethods, String minSubtotal,
+                                                       String discount, String tax, String shippingCost) {
+        OrderServiceConfig.PricingRule rule = new OrderServiceConfig.PricingRule();
+        rule.setSources(sources);
+        rule.setPaymentMethods(paymentMethods);
+        rule.setMinSubtotal(new BigDecimal(minSubtotal));
+        rule.setDiscount(discount != null ? new BigDecimal(discount) : null);
+        rule.setTax(tax != null ? new BigDecimal(tax) : null);
+        rule.setShippingCost(shippingCost != null ? new BigDecimal(shippingCost) : null);
+        return rule;
+    }
+
+    private static List<ProductDetailsDto> cart(String... prices) {
+        return Arrays.stream(prices).map(price -> product(new BigDecimal(price))).toList();
+    }
+
+    private static ProductDetailsDto product(BigDecimal price) {
+        return new ProductDetailsDto("p", "p", "p", "p", price);
+    }
+}
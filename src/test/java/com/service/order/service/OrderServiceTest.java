@@ -0,0 +1,94 @@
+package com.service.order.service;
+
+import com.service.order.client.ProductClient;
+import com.service.order.config.OrderServiceConfig;
+import com.service.order.event.OrderEventPublisher;
+import com.service.order.exception.BusinessException;
+import com.service.order.mapper.MapStructMapper;
+import com.service.order.metrics.OrderStages;
+import com.service.order.model.dto.OrderItemDto;
+import com.service.order.model.dto.request.OrderRequestDto;
+import com.service.order.model.dto.response.BatchOrderResultDto;
+import com.service.order.model.enums.PaymentMethod;
+import com.service.order.repository.KeysetSortColumn;
+import com.service.order.repository.OrderItemRepository;
+import com.service.order.repository.OrderRepository;
+import com.service.order.util.Constants;
+import com.service.order.util.PageCursor;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderLineResolver orderLineResolver = mock(OrderLineResolver.class);
+    private final OrderService orderService = new OrderService(orderRepository, mock(MapStructMapper.class), mock(ProductClient.class),
+            new OrderServiceConfig(), mock(OrderEventPublisher.class), mock(OrderCache.class), mock(OrderItemRepository.class),
+            orderLineResolver, mock(OrderNumberAllocator.class), mock(Validator.class), mock(PlatformTransactionManager.class),
+            mock(OrderPricing.class), mock(OrderStages.class));
+
+    @Test
+    void cursorKeysAreReadAsValuesOfTheirSortColumn() {
+        when(orderRepository.findPageAfter(any(), anyBoolean(), any(), anyLong(), anyInt())).thenReturn(List.of());
+
+        orderService.getOrdersAfter(new PageCursor("totalAmount", true, "120.50", 9L).encode(), 10, "id", "asc", false, null);
+        orderService.getOrdersAfter(new PageCursor("orderDate", false, "2026-01-01 10:00:00.5", 9L).encode(), 10, "id", "asc", false, null);
+
+        verify(orderRepository).findPageAfter(KeysetSortColumn.TOTAL_AMOUNT, true, new BigDecimal("120.50"), 9L, 11);
+        verify(orderRepository).findPageAfter(KeysetSortColumn.ORDER_DATE, false, LocalDateTime.parse("2026-01-01T10:00:00.5"), 9L, 11);
+    }
+
+    @Test
+    void cursorsWithAKeyOfAnotherTypeAreRejected() {
+        for (PageCursor cursor : List.of(
+                new PageCursor("totalAmount", false, "1 or 1=1", 9L),
+                new PageCursor("orderDate", false, "yesterday", 9L),
+                new PageCursor("customerId", false, "12.5", 9L),
+                new PageCursor("status", false, "SHIPPED_TWICE", 9L),
+                new PageCursor("status", false, null, 9L))) {
+            assertThatThrownBy(() -> orderService.getOrdersAfter(cursor.encode(), 10, "id", "asc", false, null))
+                    .isInstanceOfSatisfying(BusinessException.class, ex -> {
+                        assertThat(ex.getMessage()).isEqualTo(Constants.INVALID_CURSOR);
+                        assertThat(ex.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+                    });
+        }
+
+        verify(orderRepository, never()).findPageAfter(any(), anyBoolean(), any(), any(), eq(11));
+    }
+
+    @Test
+    void linesFailingWithAnUnexpectedErrorOnlyFailTheirOrder() {
+        when(orderLineResolver.resolveEach(anyList())).thenReturn(List.of(
+                CompletableFuture.failedFuture(new IllegalStateException("lookup executor shut down")),
+                CompletableFuture.failedFuture(new BusinessException(Constants.PRODUCT_NOT_AVAILABLE, HttpStatus.BAD_REQUEST))));
+        OrderRequestDto request = new OrderRequestDto(null, 7L, null, null, null, "address", PaymentMethod.CASH,
+                List.of(new OrderItemDto("p-1", 1L)), null, null, null, null, null);
+
+        OrderService.PreparedOrders prepared = orderService.prepareOrders(List.of(request, request));
+
+        assertThat(prepared.orders()).isEmpty();
+        assertThat(prepared.results()).containsExactly(
+                BatchOrderResultDto.failed(0, Constants.ORDER_CREATION_FAILED, HttpStatus.INTERNAL_SERVER_ERROR),
+                BatchOrderResultDto.failed(1, Constants.PRODUCT_NOT_AVAILABLE, HttpStatus.BAD_REQUEST));
+    }
+}